@@ -0,0 +1,58 @@
+package eu.popalexr.travel_recommendation.Benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.popalexr.travel_recommendation.Streaming.OpenAiStreamDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding full recorded replies from both OpenAI streaming endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordedStreamBenchmark {
+
+    private byte[] chatCompletionsStream;
+    private byte[] responsesStream;
+    private OpenAiStreamDecoder chatCompletionsDecoder;
+    private OpenAiStreamDecoder responsesDecoder;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        chatCompletionsStream = Fixtures.bytes("openai/chat-completions-stream.sse");
+        responsesStream = Fixtures.bytes("openai/responses-stream.sse");
+        chatCompletionsDecoder = new OpenAiStreamDecoder(
+            objectMapper.getFactory(),
+            OpenAiStreamDecoder.Format.CHAT_COMPLETIONS
+        );
+        responsesDecoder = new OpenAiStreamDecoder(objectMapper.getFactory(), OpenAiStreamDecoder.Format.RESPONSES);
+    }
+
+    @Benchmark
+    public void chatCompletions(Blackhole blackhole) throws IOException {
+        chatCompletionsDecoder.decode(new ByteArrayInputStream(chatCompletionsStream), blackhole::consume);
+    }
+
+    @Benchmark
+    public void responses(Blackhole blackhole) throws IOException {
+        responsesDecoder.decode(new ByteArrayInputStream(responsesStream), blackhole::consume);
+    }
+}
@@ -0,0 +1,93 @@
+package eu.popalexr.travel_recommendation.Benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.popalexr.travel_recommendation.Streaming.OpenAiStreamDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one streamed reply: the previous {@code readLine} + {@code readTree} loop from
+ * {@code OpenAiChatServiceImpl.streamChat} against {@link OpenAiStreamDecoder}.
+ * Run with {@code -prof gc} to compare allocation per reply.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SseDecodeBenchmark {
+
+    @Param({"200", "2000"})
+    public int deltas;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] stream;
+    private OpenAiStreamDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < deltas; i++) {
+            sb.append("data: {\"id\":\"chatcmpl-bench\",\"object\":\"chat.completion.chunk\",\"created\":1730000000,")
+                .append("\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\" token")
+                .append(i)
+                .append("\"},\"logprobs\":null,\"finish_reason\":null}]}\n\n");
+        }
+        sb.append("data: [DONE]\n\n");
+        stream = sb.toString().getBytes(StandardCharsets.UTF_8);
+        decoder = new OpenAiStreamDecoder(objectMapper.getFactory(), OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+    }
+
+    @Benchmark
+    public void streamingDecoder(Blackhole blackhole) throws IOException {
+        decoder.decode(new ByteArrayInputStream(stream), blackhole::consume);
+    }
+
+    @Benchmark
+    public void readLineAndTree(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new ByteArrayInputStream(stream), StandardCharsets.UTF_8)
+        )) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("event:")) {
+                    continue;
+                }
+                if ("data: [DONE]".equals(trimmed)) {
+                    break;
+                }
+                if (trimmed.startsWith("data:")) {
+                    trimmed = trimmed.substring(5).trim();
+                }
+                if (!trimmed.startsWith("{") && !trimmed.startsWith("[")) {
+                    continue;
+                }
+                JsonNode deltaNode = objectMapper.readTree(trimmed)
+                    .path("choices").path(0).path("delta").path("content");
+                if (deltaNode.isTextual() && !deltaNode.asText().isBlank()) {
+                    blackhole.consume(deltaNode.asText());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package eu.popalexr.travel_recommendation.Controllers;
+
+import eu.popalexr.travel_recommendation.Benchmarks.Fixtures;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reply post-processing done on every chat response: code-fence stripping and the
+ * message DTO mapping used when a whole chat is returned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChatControllerBenchmark {
+
+    @Param({"50", "500"})
+    public int historySize;
+
+    private ChatController controller;
+    private String fencedReply;
+    private String plainReply;
+    private List<ChatMessage> history;
+
+    @Setup
+    public void setUp() {
+        controller = new ChatController(null, null, null, null, null, null, null, null, null, null, null, null);
+        plainReply = Fixtures.text("openai/reply.html");
+        fencedReply = "```html\n" + plainReply + "\n```";
+
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(i % 2 == 0
+                ? ChatMessage.create(null, "user", "What should we do on day " + (i / 2 + 1) + " in Lisbon?")
+                : ChatMessage.create(null, "assistant", fencedReply));
+        }
+    }
+
+    @Benchmark
+    public String stripCodeFencesFenced() {
+        return controller.stripCodeFences(fencedReply);
+    }
+
+    @Benchmark
+    public String stripCodeFencesPlain() {
+        return controller.stripCodeFences(plainReply);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> messageDtos() {
+        return controller.buildMessageDtos(history);
+    }
+}
@@ -0,0 +1,53 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.popalexr.travel_recommendation.Benchmarks.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a recorded Mapbox geocoding response into a place.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeocodingParseBenchmark {
+
+    private MapboxGeocodingServiceImpl service;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        service = new MapboxGeocodingServiceImpl(
+            new ObjectMapper(),
+            null,
+            null,
+            "benchmark-token",
+            "http://localhost:8089/geocoding/v5/mapbox.places",
+            2500,
+            100,
+            60,
+            new SimpleMeterRegistry()
+        );
+        body = Fixtures.text("mapbox/geocode-place.json");
+    }
+
+    @Benchmark
+    public Object parsePlace() {
+        return service.parsePlace(body, "Jeronimos Monastery, Lisbon");
+    }
+}
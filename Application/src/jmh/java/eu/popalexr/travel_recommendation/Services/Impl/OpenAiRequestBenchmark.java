@@ -0,0 +1,101 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.popalexr.travel_recommendation.Benchmarks.Fixtures;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.TripProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request building and response handling in {@link OpenAiChatServiceImpl} without the
+ * network: profile context, history serialization into a Responses API payload, and
+ * reading the reply text out of a recorded response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OpenAiRequestBenchmark {
+
+    @Param({"10", "100"})
+    public int historySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OpenAiChatServiceImpl service;
+    private TripProfile profile;
+    private List<ChatMessage> history;
+    private byte[] responsesReply;
+
+    @Setup
+    public void setUp() {
+        service = new OpenAiChatServiceImpl(
+            "benchmark-key",
+            "gpt-4o-mini",
+            "http://localhost:8089/v1",
+            objectMapper,
+            null,
+            null,
+            null,
+            null,
+            120_000,
+            30_000,
+            45_000,
+            new SimpleMeterRegistry()
+        );
+
+        profile = TripProfile.create(null);
+        profile.setDestination("Lisbon, Portugal");
+        profile.setStartDate("2025-05-14");
+        profile.setEndDate("2025-05-18");
+        profile.setBudget("1500 EUR");
+        profile.setTravelers("2 adults");
+        profile.setInterests("history, food, viewpoints, fado");
+        profile.setConstraints("no car; prefer public transport");
+
+        String reply = Fixtures.text("openai/reply.html");
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(i % 2 == 0
+                ? ChatMessage.create(null, "user", "Can you adjust day " + (i / 2 + 1) + " for rain?")
+                : ChatMessage.create(null, "assistant", reply));
+        }
+        responsesReply = Fixtures.bytes("openai/responses-reply.json");
+    }
+
+    @Benchmark
+    public String buildProfileContext() {
+        return service.buildProfileContext(profile);
+    }
+
+    @Benchmark
+    public String serializeResponsesRequest() throws Exception {
+        ObjectNode root = service.baseChatRequest(profile);
+        service.appendHistory((ArrayNode) root.get("messages"), history);
+        return objectMapper.writeValueAsString(service.buildResponsesRequest(root));
+    }
+
+    @Benchmark
+    public JsonNode extractResponseContent() throws Exception {
+        return service.extractResponseContent(objectMapper.readTree(responsesReply));
+    }
+}
@@ -0,0 +1,212 @@
+package eu.popalexr.travel_recommendation.LoadTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives {@code POST /api/chat/stream} with increasing numbers of concurrent users and reports
+ * time to first byte, time to first delta, full reply time and throughput per stage.
+ * Intended to run against an application wired to {@link StubUpstreamServer} and started with
+ * {@code RATE_LIMIT_ENABLED=false}, since many simulated users share each test account.
+ *
+ * <p>Options ({@code key=value}):
+ * <ul>
+ *   <li>{@code base-url} (http://localhost:8000)</li>
+ *   <li>{@code users}: comma-separated stages of concurrent users (50,200,1000)</li>
+ *   <li>{@code requests}: streamed replies per user and stage (3)</li>
+ *   <li>{@code accounts}: test accounts shared round-robin by the users (20)</li>
+ *   <li>{@code password} (load-test-password), {@code cookie-name} (AUTH_TOKEN)</li>
+ *   <li>{@code message}: prompt sent for every reply</li>
+ * </ul>
+ */
+public final class ChatStreamLoadTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    private final String baseUrl;
+    private final String password;
+    private final String cookieName;
+    private final String message;
+
+    private ChatStreamLoadTest(LoadTestArgs args) {
+        this.baseUrl = args.string("base-url", "http://localhost:8000");
+        this.password = args.string("password", "load-test-password");
+        this.cookieName = args.string("cookie-name", "AUTH_TOKEN");
+        this.message = args.string("message", "Plan a four-day trip to Lisbon in May for two adults who like food and history.");
+    }
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        ChatStreamLoadTest loadTest = new ChatStreamLoadTest(args);
+
+        List<String> cookies = loadTest.login(args.integer("accounts", 20));
+        int requestsPerUser = args.integer("requests", 3);
+
+        System.out.printf(
+            "%-7s %-9s %-7s %-24s %-24s %-24s %-10s%n",
+            "users", "replies", "errors", "ttfb p50/p95/p99 ms", "first delta p50/p95/p99", "full reply p50/p95/p99", "replies/s"
+        );
+        for (int users : args.integers("users", "50,200,1000")) {
+            loadTest.runStage(users, requestsPerUser, cookies).print(users);
+        }
+    }
+
+    /**
+     * Registers (if needed) and logs in the test accounts, returning one auth cookie per account.
+     */
+    private List<String> login(int accounts) throws Exception {
+        List<String> cookies = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            String email = "load-test-" + i + "@example.test";
+            post("/register", Map.of("email", email, "password", password, "firstName", "Load", "lastName", "Test"));
+            HttpResponse<String> response = post("/login", Map.of("email", email, "password", password));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode() + " " + response.body());
+            }
+            String cookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(header -> header.startsWith(cookieName + "="))
+                .map(header -> header.split(";", 2)[0])
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No " + cookieName + " cookie for " + email));
+            cookies.add(cookie);
+        }
+        return cookies;
+    }
+
+    private HttpResponse<String> post(String path, Map<String, Object> body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private StageResult runStage(int users, int requestsPerUser, List<String> cookies) throws InterruptedException {
+        ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(users);
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                String cookie = cookies.get(user % cookies.size());
+                executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < requestsPerUser; i++) {
+                            samples.add(streamOnce(cookie));
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+
+        return new StageResult(List.copyOf(samples), System.nanoTime() - start);
+    }
+
+    private Sample streamOnce(String cookie) {
+        long start = System.nanoTime();
+        long firstByte = -1;
+        long firstDelta = -1;
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("message", message, "bypassCache", true));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/chat/stream"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .header("Cookie", cookie)
+                .timeout(Duration.ofMinutes(3))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                if (response.statusCode() != 200) {
+                    return Sample.failed(start);
+                }
+                String line;
+                String event = null;
+                while ((line = reader.readLine()) != null) {
+                    if (firstByte < 0) {
+                        firstByte = System.nanoTime();
+                    }
+                    if (line.startsWith("event:")) {
+                        event = line.substring(6).trim();
+                    } else if (line.isEmpty()) {
+                        if ("delta".equals(event) && firstDelta < 0) {
+                            firstDelta = System.nanoTime();
+                        } else if ("error".equals(event)) {
+                            return Sample.failed(start);
+                        } else if ("done".equals(event)) {
+                            // The stream stays open for the post-processing event; the reply itself is complete.
+                            return new Sample(true, firstByte - start, firstDelta < 0 ? -1 : firstDelta - start, System.nanoTime() - start);
+                        }
+                        event = null;
+                    }
+                }
+            }
+            return Sample.failed(start);
+        } catch (Exception e) {
+            return Sample.failed(start);
+        }
+    }
+
+    private record Sample(boolean ok, long ttfbNanos, long firstDeltaNanos, long totalNanos) {
+
+        static Sample failed(long start) {
+            return new Sample(false, -1, -1, System.nanoTime() - start);
+        }
+    }
+
+    private record StageResult(List<Sample> samples, long elapsedNanos) {
+
+        void print(int users) {
+            List<Sample> ok = samples.stream().filter(Sample::ok).toList();
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf(
+                "%-7d %-9d %-7d %-24s %-24s %-24s %-10.1f%n",
+                users,
+                ok.size(),
+                samples.size() - ok.size(),
+                percentiles(ok.stream().mapToLong(Sample::ttfbNanos).toArray()),
+                percentiles(ok.stream().mapToLong(Sample::firstDeltaNanos).filter(v -> v >= 0).toArray()),
+                percentiles(ok.stream().mapToLong(Sample::totalNanos).toArray()),
+                ok.size() / seconds
+            );
+        }
+
+        private static String percentiles(long[] nanos) {
+            if (nanos.length == 0) {
+                return "-";
+            }
+            Arrays.sort(nanos);
+            return millis(nanos, 0.50) + "/" + millis(nanos, 0.95) + "/" + millis(nanos, 0.99);
+        }
+
+        private static long millis(long[] sorted, double quantile) {
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000;
+        }
+    }
+}
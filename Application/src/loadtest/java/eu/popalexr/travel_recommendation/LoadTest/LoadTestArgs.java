@@ -0,0 +1,49 @@
+package eu.popalexr.travel_recommendation.LoadTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code key=value} command line options, so they survive being passed through
+ * {@code -Dloadtest.args} unchanged.
+ */
+final class LoadTestArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestArgs(String[] args) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+    }
+
+    String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int integer(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    double decimal(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    List<Integer> integers(String key, String defaultValue) {
+        List<Integer> result = new ArrayList<>();
+        for (String part : string(key, defaultValue).split(",")) {
+            if (!part.isBlank()) {
+                result.add(Integer.parseInt(part.trim()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+package eu.popalexr.travel_recommendation.LoadTest;
+
+import eu.popalexr.travel_recommendation.Models.TimeOrderedIdGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Compares the write path of a chat turn's message pair before and after application-assigned
+ * ids, directly over JDBC against a migrated database:
+ * <ul>
+ *   <li>{@code identity}: one INSERT per message, the id read back from the auto-increment
+ *   column (what Hibernate does for IDENTITY ids)</li>
+ *   <li>{@code batched}: ids from {@link TimeOrderedIdGenerator}, both rows sent as one JDBC
+ *   batch, which the driver rewrites into a multi-row INSERT</li>
+ * </ul>
+ * Each pair is committed on its own, like a turn. Each mode writes to its own temporary copy
+ * of {@code chat_messages} (same columns and indexes, auto-increment included), seeded with
+ * {@code seed} rows so the indexes are not trivially small; the copies disappear on disconnect.
+ *
+ * <p>Options ({@code key=value}):
+ * <ul>
+ *   <li>{@code url} (the application's default MySQL URL), {@code user}, {@code password}</li>
+ *   <li>{@code seed}: messages inserted before measuring (100000)</li>
+ *   <li>{@code pairs}: message pairs written per mode (2000)</li>
+ *   <li>{@code rounds}: alternating rounds per mode; the first is reported as warm-up (3)</li>
+ * </ul>
+ */
+public final class MessageInsertLoadTest {
+
+    private static final String IDENTITY_TABLE = "insert_test_identity";
+    private static final String BATCHED_TABLE = "insert_test_batched";
+    private static final String INSERT_MESSAGE =
+        "insert into " + BATCHED_TABLE + " (id, chat_id, role, `text`) values (?, ?, ?, ?)";
+    private static final String INSERT_MESSAGE_IDENTITY =
+        "insert into " + IDENTITY_TABLE + " (chat_id, role, `text`) values (?, ?, ?)";
+    private static final long CHAT_ID = 1;
+    private static final String USER_TEXT = "Plan a four-day trip to Lisbon in May for two adults who like food and history.";
+    private static final String ASSISTANT_TEXT = "Day 1: Alfama and the castle. ".repeat(40);
+
+    private MessageInsertLoadTest() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        Properties properties = new Properties();
+        properties.setProperty("user", args.string("user", "travel_user"));
+        properties.setProperty("password", args.string("password", "travel_pass"));
+        properties.setProperty("rewriteBatchedStatements", "true");
+        String url = args.string(
+            "url",
+            "jdbc:mysql://localhost:3306/travel_recommendation?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+        );
+        int pairs = args.integer("pairs", 2000);
+        int rounds = args.integer("rounds", 3);
+
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            seed(connection, args.integer("seed", 100_000));
+
+            System.out.printf("%-6s %-9s %-8s %-12s%n", "round", "mode", "pairs", "inserts/s");
+            for (int round = 1; round <= rounds; round++) {
+                String label = round == 1 ? "warmup" : String.valueOf(round - 1);
+                print(label, "identity", pairs, writeIdentity(connection, CHAT_ID, pairs));
+                print(label, "batched", pairs, writeBatched(connection, CHAT_ID, pairs));
+            }
+        }
+    }
+
+    private static long writeIdentity(Connection connection, long chatId, int pairs) throws Exception {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_MESSAGE_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < pairs; i++) {
+                insertIdentity(insert, chatId, "user", USER_TEXT);
+                insertIdentity(insert, chatId, "assistant", ASSISTANT_TEXT);
+                connection.commit();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void insertIdentity(PreparedStatement insert, long chatId, String role, String text) throws Exception {
+        insert.setLong(1, chatId);
+        insert.setString(2, role);
+        insert.setString(3, text);
+        insert.executeUpdate();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+        }
+    }
+
+    private static long writeBatched(Connection connection, long chatId, int pairs) throws Exception {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_MESSAGE)) {
+            for (int i = 0; i < pairs; i++) {
+                addMessage(insert, chatId, "user", USER_TEXT);
+                addMessage(insert, chatId, "assistant", ASSISTANT_TEXT);
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void addMessage(PreparedStatement insert, long chatId, String role, String text) throws Exception {
+        insert.setLong(1, TimeOrderedIdGenerator.nextId(0));
+        insert.setLong(2, chatId);
+        insert.setString(3, role);
+        insert.setString(4, text);
+        insert.addBatch();
+    }
+
+    private static void seed(Connection connection, int messages) throws Exception {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create temporary table " + IDENTITY_TABLE + " like chat_messages");
+            ddl.execute("create temporary table " + BATCHED_TABLE + " like chat_messages");
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement identity = connection.prepareStatement(INSERT_MESSAGE_IDENTITY);
+             PreparedStatement batched = connection.prepareStatement(INSERT_MESSAGE)) {
+            for (int i = 0; i < messages; i++) {
+                String role = i % 2 == 0 ? "user" : "assistant";
+                String text = i % 2 == 0 ? USER_TEXT : ASSISTANT_TEXT;
+                identity.setLong(1, CHAT_ID);
+                identity.setString(2, role);
+                identity.setString(3, text);
+                identity.addBatch();
+                addMessage(batched, CHAT_ID, role, text);
+                if (i % 1000 == 999) {
+                    identity.executeBatch();
+                    batched.executeBatch();
+                    connection.commit();
+                }
+            }
+            identity.executeBatch();
+            batched.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void print(String round, String mode, int pairs, long nanos) {
+        double insertsPerSecond = pairs * 2 / (nanos / 1_000_000_000.0);
+        System.out.printf("%-6s %-9s %-8d %-12.0f%n", round, mode, pairs, insertsPerSecond);
+    }
+}
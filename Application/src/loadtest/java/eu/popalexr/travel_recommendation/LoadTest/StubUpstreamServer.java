@@ -0,0 +1,175 @@
+package eu.popalexr.travel_recommendation.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the OpenAI and Mapbox APIs that replays the recorded fixtures in
+ * {@code src/test/resources/fixtures}. Point the application at it with
+ * {@code OPENAI_BASE_URL=http://localhost:8089/v1} and
+ * {@code MAPBOX_GEOCODING_URL=http://localhost:8089/geocoding/v5/mapbox.places}
+ * (any non-empty API keys).
+ *
+ * <p>Options ({@code key=value}):
+ * <ul>
+ *   <li>{@code port} (8089)</li>
+ *   <li>{@code latency-ms}: delay before the first byte of an OpenAI response (400)</li>
+ *   <li>{@code token-rate}: streamed delta events per second, 0 for no pacing (60)</li>
+ *   <li>{@code error-rate}: fraction of OpenAI requests answered with {@code error-status} (0)</li>
+ *   <li>{@code error-status}: status used for injected errors (500; 429 to test throttling)</li>
+ *   <li>{@code mapbox-latency-ms}: delay for geocoding responses (80)</li>
+ * </ul>
+ */
+public final class StubUpstreamServer {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+    private final int tokenRate;
+    private final double errorRate;
+    private final int errorStatus;
+    private final long mapboxLatencyMillis;
+
+    private final List<String> chatCompletionsEvents;
+    private final List<String> responsesEvents;
+    private final byte[] responsesReply;
+    private final byte[] chatCompletionReply;
+    private final byte[] mapboxPlace;
+
+    private StubUpstreamServer(LoadTestArgs args) {
+        this.latencyMillis = args.integer("latency-ms", 400);
+        this.tokenRate = args.integer("token-rate", 60);
+        this.errorRate = args.decimal("error-rate", 0.0);
+        this.errorStatus = args.integer("error-status", 500);
+        this.mapboxLatencyMillis = args.integer("mapbox-latency-ms", 80);
+
+        this.chatCompletionsEvents = splitEvents(fixture("openai/chat-completions-stream.sse"));
+        this.responsesEvents = splitEvents(fixture("openai/responses-stream.sse"));
+        this.responsesReply = fixture("openai/responses-reply.json").getBytes(StandardCharsets.UTF_8);
+        this.chatCompletionReply = chatCompletion(fixture("openai/reply.html"));
+        this.mapboxPlace = fixture("mapbox/geocode-place.json").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] argv) throws IOException {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        StubUpstreamServer stub = new StubUpstreamServer(args);
+        int port = args.integer("port", 8089);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/chat/completions", exchange -> stub.handleOpenAi(exchange, false));
+        server.createContext("/v1/responses", exchange -> stub.handleOpenAi(exchange, true));
+        server.createContext("/geocoding/v5/mapbox.places/", stub::handleMapbox);
+        server.start();
+
+        System.out.printf(
+            "Stub upstream listening on :%d (latency %d ms, %d tokens/s, error rate %.2f -> %d)%n",
+            port, stub.latencyMillis, stub.tokenRate, stub.errorRate, stub.errorStatus
+        );
+    }
+
+    private void handleOpenAi(HttpExchange exchange, boolean responsesApi) throws IOException {
+        try (exchange) {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            sleep(latencyMillis);
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                byte[] body = ("{\"error\":{\"message\":\"Injected failure\",\"type\":\"stub_error\"}}")
+                    .getBytes(StandardCharsets.UTF_8);
+                sendJson(exchange, errorStatus, body);
+                return;
+            }
+
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, responsesApi ? responsesEvents : chatCompletionsEvents);
+            } else {
+                sendJson(exchange, 200, responsesApi ? responsesReply : chatCompletionReply);
+            }
+        }
+    }
+
+    private void handleMapbox(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            sleep(mapboxLatencyMillis);
+            sendJson(exchange, 200, mapboxPlace);
+        }
+    }
+
+    private void stream(HttpExchange exchange, List<String> events) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        long pauseMillis = tokenRate > 0 ? Math.max(1, 1000L / tokenRate) : 0;
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String event : events) {
+                out.write(event.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (pauseMillis > 0 && event.contains("delta")) {
+                    sleep(pauseMillis);
+                }
+            }
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private byte[] chatCompletion(String reply) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("id", "chatcmpl-stub");
+        root.put("object", "chat.completion");
+        root.put("model", "gpt-4o-mini");
+        ObjectNode choice = root.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", reply);
+        choice.put("finish_reason", "stop");
+        try {
+            return objectMapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> splitEvents(String stream) {
+        return List.of(stream.split("(?<=\n\n)"));
+    }
+
+    private static String fixture(String name) {
+        try (InputStream in = StubUpstreamServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package eu.popalexr.travel_recommendation.Cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small in-process cache with a fixed entry limit (least recently used entries are evicted first)
+ * and a time-to-live per entry. Expired entries are dropped lazily on access.
+ */
+public class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long defaultTtlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TtlLruCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.defaultTtlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlLruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or null when the key is absent or expired.
+     */
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Stores a value with its own time-to-live; a null ttl falls back to the cache default.
+     */
+    public void put(K key, V value, Duration ttl) {
+        if (key == null || value == null) {
+            return;
+        }
+        long ttlNanos = ttl == null ? defaultTtlNanos : Math.min(ttl.toNanos(), defaultTtlNanos);
+        if (ttlNanos <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Publishes hit/miss/eviction counters and the current size, tagged with the cache name.
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        FunctionCounter.builder("cache.gets", this, TtlLruCache::hitCount)
+            .tag("cache", cacheName)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", this, TtlLruCache::missCount)
+            .tag("cache", cacheName)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("cache.evictions", this, TtlLruCache::evictionCount)
+            .tag("cache", cacheName)
+            .register(registry);
+        Gauge.builder("cache.size", this, TtlLruCache::size)
+            .tag("cache", cacheName)
+            .register(registry);
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
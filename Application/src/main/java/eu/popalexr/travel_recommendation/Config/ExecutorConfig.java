@@ -0,0 +1,120 @@
+package eu.popalexr.travel_recommendation.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for the follow-up OpenAI calls made after an assistant reply is stored
+     * (itinerary extraction and chat title generation). When the queue is full the job runs
+     * on the submitting thread, which degrades to the previous synchronous behaviour instead
+     * of dropping work.
+     */
+    @Bean(name = "replyPostProcessingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor replyPostProcessingExecutor(
+        @Value("${chat.post-processing.pool-size:4}") int poolSize,
+        @Value("${chat.post-processing.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("reply-post-processing-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Pool for the background refresh of rolling chat summaries. Kept apart from the
+     * post-processing pool because a full queue must skip the refresh (it is retried on a
+     * later turn) rather than run a summarization call on the request thread.
+     */
+    @Bean(name = "historySummaryExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor historySummaryExecutor(
+        @Value("${chat.context.summary.pool-size:2}") int poolSize,
+        @Value("${chat.context.summary.queue-capacity:50}") int queueCapacity
+    ) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("history-summary-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Small pool for PDF text extraction so a burst of large uploads cannot take over the
+     * request threads or the heap. Uploads beyond the queue are rejected and analyzed
+     * without extracted text.
+     */
+    @Bean(name = "pdfExtractionExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor pdfExtractionExecutor(
+        @Value("${pdf.extraction.pool-size:2}") int poolSize,
+        @Value("${pdf.extraction.queue-capacity:16}") int queueCapacity
+    ) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("pdf-extraction-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Pool for the per-file OpenAI analyses of multi-document uploads. Files of one upload run
+     * side by side; files beyond the queue fail individually instead of blocking the request.
+     */
+    @Bean(name = "documentAnalysisExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor documentAnalysisExecutor(
+        @Value("${documents.analysis.pool-size:6}") int poolSize,
+        @Value("${documents.analysis.queue-capacity:60}") int queueCapacity
+    ) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("document-analysis-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Single thread that removes the rows of soft-deleted chats, both right after a deletion
+     * and in the periodic sweep for chats whose purge did not finish.
+     */
+    @Bean(name = "chatPurgeExecutor", destroyMethod = "shutdownNow")
+    public ScheduledThreadPoolExecutor chatPurgeExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+            1,
+            Thread.ofPlatform().name("chat-purge-", 0).daemon(true).factory()
+        );
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
@@ -1,15 +1,112 @@
 package eu.popalexr.travel_recommendation.Config;
 
+import eu.popalexr.travel_recommendation.Http.HttpClientProfile;
+import eu.popalexr.travel_recommendation.Resilience.CircuitBreaker;
+import eu.popalexr.travel_recommendation.Resilience.ResilientHttpExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class HttpClientConfig {
 
+    /**
+     * Client for the OpenAI API. Its read timeout bounds each attempt; callers set the
+     * overall deadline per call.
+     */
     @Bean
-    public HttpClient httpClient() {
-        return HttpClient.newHttpClient();
+    public HttpClientProfile openAiHttpClient(
+        MeterRegistry meterRegistry,
+        @Value("${http.client.keep-alive-seconds:30}") int keepAliveSeconds,
+        @Value("${http.clients.openai.version:HTTP_2}") HttpClient.Version version,
+        @Value("${http.clients.openai.connect-timeout-ms:5000}") long connectTimeoutMillis,
+        @Value("${http.clients.openai.read-timeout-ms:90000}") long readTimeoutMillis
+    ) {
+        return profile("openai", meterRegistry, keepAliveSeconds, version, connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    @Bean
+    public HttpClientProfile mapboxHttpClient(
+        MeterRegistry meterRegistry,
+        @Value("${http.client.keep-alive-seconds:30}") int keepAliveSeconds,
+        @Value("${http.clients.mapbox.version:HTTP_2}") HttpClient.Version version,
+        @Value("${http.clients.mapbox.connect-timeout-ms:2000}") long connectTimeoutMillis,
+        @Value("${http.clients.mapbox.read-timeout-ms:2500}") long readTimeoutMillis
+    ) {
+        return profile("mapbox", meterRegistry, keepAliveSeconds, version, connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    /**
+     * OpenAI calls go through retries with backoff and a circuit breaker; see
+     * {@link ResilientHttpExecutor}. Deadlines are chosen per call by the caller.
+     */
+    @Bean
+    public ResilientHttpExecutor openAiHttpExecutor(
+        @Qualifier("openAiHttpClient") HttpClientProfile openAiHttpClient,
+        MeterRegistry meterRegistry,
+        @Value("${openai.retry.max-attempts:3}") int maxAttempts,
+        @Value("${openai.retry.initial-backoff-ms:500}") long initialBackoffMillis,
+        @Value("${openai.retry.max-backoff-ms:8000}") long maxBackoffMillis,
+        @Value("${openai.retry.max-retry-after-ms:20000}") long maxRetryAfterMillis,
+        @Value("${openai.circuit.window-size:20}") int circuitWindowSize,
+        @Value("${openai.circuit.minimum-calls:10}") int circuitMinimumCalls,
+        @Value("${openai.circuit.failure-rate:0.5}") double circuitFailureRate,
+        @Value("${openai.circuit.open-ms:30000}") long circuitOpenMillis,
+        @Value("${openai.circuit.half-open-calls:3}") int circuitHalfOpenCalls,
+        @Value("${openai.hedging.enabled:false}") boolean hedgingEnabled,
+        @Value("${openai.hedging.delay-ms:3000}") long hedgeDelayMillis
+    ) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+            circuitWindowSize,
+            circuitMinimumCalls,
+            circuitFailureRate,
+            Duration.ofMillis(circuitOpenMillis),
+            circuitHalfOpenCalls
+        );
+        ResilientHttpExecutor.Settings settings = new ResilientHttpExecutor.Settings(
+            Math.max(1, maxAttempts),
+            Duration.ofMillis(initialBackoffMillis),
+            Duration.ofMillis(maxBackoffMillis),
+            Duration.ofMillis(maxRetryAfterMillis),
+            hedgingEnabled,
+            Duration.ofMillis(hedgeDelayMillis)
+        );
+        return new ResilientHttpExecutor(openAiHttpClient, circuitBreaker, settings, meterRegistry);
+    }
+
+    private static HttpClientProfile profile(
+        String name,
+        MeterRegistry meterRegistry,
+        int keepAliveSeconds,
+        HttpClient.Version version,
+        long connectTimeoutMillis,
+        long readTimeoutMillis
+    ) {
+        applyKeepAlive(keepAliveSeconds);
+        HttpClientProfile.Settings settings = new HttpClientProfile.Settings(
+            version,
+            Duration.ofMillis(connectTimeoutMillis),
+            Duration.ofMillis(readTimeoutMillis)
+        );
+        return HttpClientProfile.create(name, settings, meterRegistry);
+    }
+
+    /**
+     * The JDK client reads its idle-connection timeout from system properties once, when its
+     * connection pool class loads, so this must run before the first client is built. Values
+     * passed with {@code -D} on the command line take precedence.
+     */
+    private static void applyKeepAlive(int keepAliveSeconds) {
+        String seconds = String.valueOf(Math.max(1, keepAliveSeconds));
+        for (String property : new String[] {"jdk.httpclient.keepalive.timeout", "jdk.httpclient.keepalive.timeout.h2"}) {
+            if (System.getProperty(property) == null) {
+                System.setProperty(property, seconds);
+            }
+        }
     }
 }
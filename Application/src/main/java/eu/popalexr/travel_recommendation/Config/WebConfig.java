@@ -2,6 +2,7 @@ package eu.popalexr.travel_recommendation.Config;
 
 import eu.popalexr.travel_recommendation.Interceptors.AuthenticatedInterceptor;
 import eu.popalexr.travel_recommendation.Interceptors.GuestOnlyInterceptor;
+import eu.popalexr.travel_recommendation.Interceptors.RateLimitInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -11,13 +12,16 @@ public class WebConfig implements WebMvcConfigurer {
 
     private final AuthenticatedInterceptor authenticatedInterceptor;
     private final GuestOnlyInterceptor guestOnlyInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
 
     public WebConfig(
         AuthenticatedInterceptor authenticatedInterceptor,
-        GuestOnlyInterceptor guestOnlyInterceptor
+        GuestOnlyInterceptor guestOnlyInterceptor,
+        RateLimitInterceptor rateLimitInterceptor
     ) {
         this.authenticatedInterceptor = authenticatedInterceptor;
         this.guestOnlyInterceptor = guestOnlyInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
     @Override
@@ -34,6 +38,19 @@ public class WebConfig implements WebMvcConfigurer {
                 "/api/settings/**"
             );
 
+        // Endpoints that call OpenAI; registered after the authentication check.
+        registry.addInterceptor(rateLimitInterceptor)
+            .addPathPatterns(
+                "/api/chat",
+                "/api/chat/stream",
+                "/api/chat/regenerate",
+                "/api/chat/edit-latest",
+                "/api/chat/upload-ticket",
+                "/api/chat/upload-accommodation",
+                "/api/chat/upload-document",
+                "/api/chat/*/documents"
+            );
+
         registry.addInterceptor(guestOnlyInterceptor)
             .addPathPatterns("/login", "/register", "/");
     }
@@ -1,20 +1,32 @@
 package eu.popalexr.travel_recommendation.Controllers;
 
 import eu.popalexr.travel_recommendation.Constants.SessionConstants;
+import eu.popalexr.travel_recommendation.DTOs.ChatMessageSummary;
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+import eu.popalexr.travel_recommendation.DTOs.PostProcessingResult;
+import eu.popalexr.travel_recommendation.Exceptions.ChatTurnException;
 import eu.popalexr.travel_recommendation.Models.Chat;
 import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.DocumentType;
 import eu.popalexr.travel_recommendation.Models.TripProfile;
-import eu.popalexr.travel_recommendation.Models.User;
 import eu.popalexr.travel_recommendation.Repositories.ChatMessageRepository;
 import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
-import eu.popalexr.travel_recommendation.Repositories.TripProfileRepository;
-import eu.popalexr.travel_recommendation.Repositories.UserRepository;
+import eu.popalexr.travel_recommendation.Services.ChatContextWindowService;
+import eu.popalexr.travel_recommendation.Services.ChatDeletionService;
+import eu.popalexr.travel_recommendation.Services.ChatTurnService;
+import eu.popalexr.travel_recommendation.Services.DocumentAnalysisService;
 import eu.popalexr.travel_recommendation.Services.OpenAiChatService;
+import eu.popalexr.travel_recommendation.Services.ReplyPostProcessingService;
+import eu.popalexr.travel_recommendation.Services.UploadBudgetService;
+import eu.popalexr.travel_recommendation.Streaming.SseDeltaCoalescer;
+import eu.popalexr.travel_recommendation.Streaming.SseStreamExecutor;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
-import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -28,13 +40,21 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,29 +67,59 @@ public class ChatController {
 
     private static final Logger LOG = LoggerFactory.getLogger(ChatController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final long MAX_UPLOAD_BYTES = 10 * 1024 * 1024; // 10MB
+
+    private static final int MAX_DOCUMENTS_PER_UPLOAD = 10;
+
     private final OpenAiChatService chatService;
     private final ChatRepository chatRepository;
     private final ChatMessageRepository chatMessageRepository;
-    private final UserRepository userRepository;
-    private final TripProfileRepository tripProfileRepository;
+    private final ChatTurnService chatTurnService;
+    private final ChatDeletionService chatDeletionService;
+    private final ReplyPostProcessingService postProcessingService;
+    private final SseStreamExecutor streamExecutor;
+    private final SseDeltaCoalescer deltaCoalescer;
+    private final ChatContextWindowService contextWindow;
+    private final DocumentAnalysisService documentAnalysisService;
+    private final UploadBudgetService uploadBudget;
+    private final ExecutorService documentAnalysisExecutor;
 
     public ChatController(
         OpenAiChatService chatService,
         ChatRepository chatRepository,
         ChatMessageRepository chatMessageRepository,
-        UserRepository userRepository,
-        TripProfileRepository tripProfileRepository
+        ChatTurnService chatTurnService,
+        ChatDeletionService chatDeletionService,
+        ReplyPostProcessingService postProcessingService,
+        SseStreamExecutor streamExecutor,
+        SseDeltaCoalescer deltaCoalescer,
+        ChatContextWindowService contextWindow,
+        DocumentAnalysisService documentAnalysisService,
+        UploadBudgetService uploadBudget,
+        @Qualifier("documentAnalysisExecutor") ExecutorService documentAnalysisExecutor
     ) {
         this.chatService = chatService;
         this.chatRepository = chatRepository;
         this.chatMessageRepository = chatMessageRepository;
-        this.userRepository = userRepository;
-        this.tripProfileRepository = tripProfileRepository;
+        this.chatTurnService = chatTurnService;
+        this.chatDeletionService = chatDeletionService;
+        this.postProcessingService = postProcessingService;
+        this.streamExecutor = streamExecutor;
+        this.deltaCoalescer = deltaCoalescer;
+        this.contextWindow = contextWindow;
+        this.documentAnalysisService = documentAnalysisService;
+        this.uploadBudget = uploadBudget;
+        this.documentAnalysisExecutor = documentAnalysisExecutor;
     }
 
     public static class ChatRequest {
         private Long chatId;
         private String message;
+        private boolean bypassCache;
 
         public Long getChatId() {
             return chatId;
@@ -86,6 +136,14 @@ public class ChatController {
         public void setMessage(String message) {
             this.message = message;
         }
+
+        public boolean isBypassCache() {
+            return bypassCache;
+        }
+
+        public void setBypassCache(boolean bypassCache) {
+            this.bypassCache = bypassCache;
+        }
     }
 
     public static class EditMessageRequest {
@@ -146,65 +204,37 @@ public class ChatController {
         }
 
         try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("error", "User not found.")
-                );
-            }
-            User user = userOpt.get();
-
-            Chat resolvedChat;
-            boolean isNewChat = request.getChatId() == null;
-
-            if (isNewChat) {
-                Chat created = Chat.create(user, null);
-                resolvedChat = chatRepository.save(created);
-            } else {
-                resolvedChat = chatRepository.findByIdAndUserId(request.getChatId(), userId)
-                    .orElse(null);
-                if (resolvedChat == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                        Map.of("error", "Chat not found.")
-                    );
-                }
-            }
-
-            final Chat chat = resolvedChat;
-            final boolean newChat = isNewChat;
             String userMessageText = request.getMessage().trim();
-            ChatMessage userMessage = ChatMessage.create(chat, "user", userMessageText);
-            chatMessageRepository.save(userMessage);
-
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            TripProfile profile = tripProfileRepository.findByChatId(chat.getId()).orElse(null);
-            String reply = stripCodeFences(chatService.chat(history, profile));
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", reply);
-            assistantMessageEntity.setItineraryJson(chatService.extractItineraryJson(reply));
-            chatMessageRepository.save(assistantMessageEntity);
-
-            if (isNewChat) {
-                String title = "New travel chat";
-                try {
-                    title = chatService.generateTitle(userMessageText, reply);
-                } catch (Exception ignored) {
-                    // Title generation should not block delivering recommendations.
-                }
-                chat.setTitle(title);
-                chatRepository.save(chat);
-            }
+            ChatTurnService.Turn turn = chatTurnService.begin(userId, request.getChatId(), userMessageText);
+            Chat chat = turn.chat();
+            ChatMessage userMessage = turn.userMessage();
+
+            TripProfile profile = turn.profile();
+            List<ChatMessage> history = contextWindow.window(chat, turn.history(), profile);
+            String reply = stripCodeFences(chatService.chat(history, profile, request.isBypassCache()));
+            ChatMessage assistantMessageEntity = chatTurnService.saveReply(chat, reply);
+
+            postProcessingService.submit(
+                chat.getId(),
+                assistantMessageEntity.getId(),
+                userMessageText,
+                reply,
+                true,
+                turn.newChat()
+            );
 
             Map<String, Object> userDto = messageDto(userMessage);
             Map<String, Object> assistantMessage = messageDto(assistantMessageEntity);
 
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "chatTitle", chat.getTitle(),
-                    "message", assistantMessage,
-                    "messages", List.of(userDto, assistantMessage)
-                )
-            );
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("chatId", chat.getId());
+            payload.put("chatTitle", chat.getTitle());
+            payload.put("message", assistantMessage);
+            payload.put("messages", List.of(userDto, assistantMessage));
+            payload.put("postProcessing", "pending");
+            return ResponseEntity.ok(payload);
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 Map.of("error", "OpenAI API key is not configured on the server.")
@@ -231,37 +261,18 @@ public class ChatController {
             );
         }
 
-        try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("error", "User not found.")
-                );
-            }
-            User user = userOpt.get();
-
-            Chat chat;
-            boolean isNewChat = request.getChatId() == null;
-
-            if (isNewChat) {
-                chat = Chat.create(user, null);
-                chat = chatRepository.save(chat);
-            } else {
-                chat = chatRepository.findByIdAndUserId(request.getChatId(), userId)
-                    .orElse(null);
-                if (chat == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                        Map.of("error", "Chat not found.")
-                    );
-                }
-            }
-
-            final Chat streamingChat = chat;
-            final boolean newChat = isNewChat;
+        if (!streamExecutor.isAccepting()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                Map.of("error", "Too many recommendations in progress. Please try again shortly.")
+            );
+        }
 
+        try {
             String userMessageText = request.getMessage().trim();
-            ChatMessage userMessage = ChatMessage.create(streamingChat, "user", userMessageText);
-            chatMessageRepository.save(userMessage);
+            ChatTurnService.Turn turn = chatTurnService.begin(userId, request.getChatId(), userMessageText);
+            final Chat streamingChat = turn.chat();
+            final boolean bypassCache = request.isBypassCache();
+            ChatMessage userMessage = turn.userMessage();
 
             SseEmitter emitter = new SseEmitter(0L);
             try {
@@ -280,11 +291,17 @@ public class ChatController {
                 // If the client disconnects immediately we still persist the message for history.
             }
 
-            CompletableFuture.runAsync(() -> streamAssistantReply(emitter, streamingChat, userMessageText, newChat));
+            try {
+                streamExecutor.submit(emitter, () -> streamAssistantReply(emitter, turn, userMessageText, bypassCache));
+            } catch (RejectedExecutionException e) {
+                sendSseError(emitter, "Too many recommendations in progress. Please try again shortly.");
+            }
 
             return ResponseEntity.ok()
                 .contentType(MediaType.TEXT_EVENT_STREAM)
                 .body(emitter);
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 Map.of("error", "OpenAI API key is not configured on the server.")
@@ -302,28 +319,105 @@ public class ChatController {
         @RequestPart("file") MultipartFile file,
         HttpServletRequest httpRequest
     ) {
-        if (file == null || file.isEmpty()) {
+        return uploadSingleDocument(
+            chatId,
+            file,
+            DocumentType.TICKET,
+            "A ticket file is required.",
+            "Failed to process the ticket. Please try again.",
+            httpRequest
+        );
+    }
+
+    @PostMapping(value = "/api/chat/upload-accommodation", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadAccommodation(
+        @RequestParam(value = "chatId", required = false) Long chatId,
+        @RequestPart("file") MultipartFile file,
+        HttpServletRequest httpRequest
+    ) {
+        return uploadSingleDocument(
+            chatId,
+            file,
+            DocumentType.ACCOMMODATION,
+            "An accommodation invoice or booking file is required.",
+            "Failed to process the accommodation document. Please try again.",
+            httpRequest
+        );
+    }
+
+    @PostMapping(value = "/api/chat/upload-document", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadDocument(
+        @RequestParam(value = "chatId", required = false) Long chatId,
+        @RequestPart("file") MultipartFile file,
+        HttpServletRequest httpRequest
+    ) {
+        return uploadSingleDocument(
+            chatId,
+            file,
+            DocumentType.OTHER,
+            "A document file is required.",
+            "Failed to process the document. Please try again.",
+            httpRequest
+        );
+    }
+
+    /**
+     * Analyzes several documents for an existing chat at once. Each file has a type hint in
+     * {@code types} ({@code ticket}, {@code accommodation} or {@code other}; all {@code other}
+     * when omitted). Files are analyzed concurrently on the document analysis pool and
+     * progress is streamed as {@code document} events ({@code analyzing}, {@code done} or
+     * {@code error} per file). Once every file has finished, the upload and analysis messages
+     * of the successful files are saved as one batch and sent in a final {@code done} event.
+     */
+    @PostMapping(
+        value = "/api/chat/{id}/documents",
+        consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<?> uploadDocuments(
+        @PathVariable("id") Long chatId,
+        @RequestPart(value = "files", required = false) List<MultipartFile> files,
+        @RequestParam(value = "types", required = false) List<String> types,
+        HttpServletRequest httpRequest
+    ) {
+        if (files == null || files.isEmpty()) {
             return ResponseEntity.badRequest().body(
-                Map.of("error", "A ticket file is required.")
+                Map.of("error", "At least one document file is required.")
             );
         }
-
-        String contentType = file.getContentType();
-        boolean supported = contentType != null
-            && (contentType.startsWith("image/") || contentType.equalsIgnoreCase("application/pdf"));
-        if (!supported) {
+        if (files.size() > MAX_DOCUMENTS_PER_UPLOAD) {
             return ResponseEntity.badRequest().body(
-                Map.of("error", "Only PDF or image files are supported.")
+                Map.of("error", "Please upload at most " + MAX_DOCUMENTS_PER_UPLOAD + " files at once.")
             );
         }
-
-        final long maxSizeBytes = 10 * 1024 * 1024; // 10MB
-        if (file.getSize() > maxSizeBytes) {
+        boolean hasTypes = types != null && !types.isEmpty();
+        if (hasTypes && types.size() != files.size()) {
             return ResponseEntity.badRequest().body(
-                Map.of("error", "File too large. Please upload files up to 10MB.")
+                Map.of("error", "Provide one document type per file.")
             );
         }
 
+        List<DocumentUpload> uploads = new ArrayList<>(files.size());
+        long totalBytes = 0;
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            String invalid = validateUpload(file, "Every uploaded file must contain data.");
+            if (invalid != null) {
+                return ResponseEntity.badRequest().body(
+                    Map.of("error", invalid, "index", i)
+                );
+            }
+            DocumentType type = parseDocumentType(hasTypes ? types.get(i) : null);
+            if (type == null) {
+                return ResponseEntity.badRequest().body(
+                    Map.of("error", "Unknown document type: " + types.get(i), "index", i)
+                );
+            }
+            String fileName = file.getOriginalFilename() == null ? defaultFileName(type) : file.getOriginalFilename();
+            uploads.add(new DocumentUpload(type, new DocumentContent(fileName, file.getContentType(), file, file.getSize()), null));
+            totalBytes += file.getSize();
+        }
+
         Object uid = httpRequest.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
         if (!(uid instanceof Long userId)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -331,98 +425,80 @@ public class ChatController {
             );
         }
 
+        Chat chat;
+        List<ChatMessage> history;
         try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("error", "User not found.")
-                );
-            }
-            User user = userOpt.get();
-
-            Chat chat;
-            boolean isNewChat = chatId == null;
-
-            if (isNewChat) {
-                chat = Chat.create(user, null);
-                chat = chatRepository.save(chat);
-            } else {
-                chat = chatRepository.findByIdAndUserId(chatId, userId).orElse(null);
-                if (chat == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                        Map.of("error", "Chat not found.")
-                    );
-                }
-            }
-
-            String fileName = file.getOriginalFilename() == null ? "ticket" : file.getOriginalFilename();
-            String userMessageText = "Uploaded airplane ticket: " + fileName;
-            ChatMessage userMessage = ChatMessage.create(chat, "user", userMessageText);
-            chatMessageRepository.save(userMessage);
-
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            String reply = chatService.analyzeTicket(history, fileName, file.getBytes(), contentType);
-            String cleanedReply = stripCodeFences(reply);
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", cleanedReply);
-            chatMessageRepository.save(assistantMessageEntity);
-
-            if (isNewChat) {
-                String title = "New travel chat";
-                try {
-                    title = chatService.generateTitle(userMessageText, reply);
-                } catch (Exception ignored) {
-                    // Title generation should not block document analysis.
-                }
-                chat.setTitle(title);
-                chatRepository.save(chat);
-            }
-
-            Map<String, Object> userDto = messageDto(userMessage);
-            Map<String, Object> assistantDto = messageDto(assistantMessageEntity);
-
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "chatTitle", chat.getTitle(),
-                    "messages", List.of(userDto, assistantDto)
-                )
-            );
-        } catch (IllegalStateException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
-                Map.of("error", "OpenAI API key is not configured on the server.")
-            );
+            ChatTurnService.Turn turn = chatTurnService.load(userId, chatId);
+            chat = turn.chat();
+            history = contextWindow.window(chat, turn.history(), null);
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(
-                Map.of("error", "Failed to process the ticket. Please try again.")
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                Map.of("error", "Failed to load chat.")
             );
         }
-    }
 
-    @PostMapping(value = "/api/chat/upload-accommodation", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Map<String, Object>> uploadAccommodation(
-        @RequestParam(value = "chatId", required = false) Long chatId,
-        @RequestPart("file") MultipartFile file,
-        HttpServletRequest httpRequest
-    ) {
-        if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "An accommodation invoice or booking file is required.")
+        UploadBudgetService.Reservation reservation = uploadBudget.reserve(totalBytes);
+        if (reservation == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                Map.of("error", "Too many uploads in progress. Please try again shortly.")
             );
         }
 
-        String contentType = file.getContentType();
-        boolean supported = contentType != null
-            && (contentType.startsWith("image/") || contentType.equalsIgnoreCase("application/pdf"));
-        if (!supported) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "Only PDF or image files are supported.")
+        try {
+            uploads = takeOwnership(files, uploads);
+        } catch (IOException e) {
+            reservation.close();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                Map.of("error", "Failed to process the documents. Please try again.")
             );
         }
 
-        final long maxSizeBytes = 10 * 1024 * 1024; // 10MB
-        if (file.getSize() > maxSizeBytes) {
+        SseEmitter emitter = new SseEmitter(0L);
+        try {
+            List<Map<String, Object>> fileDtos = new ArrayList<>(uploads.size());
+            for (int i = 0; i < uploads.size(); i++) {
+                fileDtos.add(Map.of(
+                    "index", i,
+                    "fileName", uploads.get(i).content().getFileName(),
+                    "type", uploads.get(i).type().name().toLowerCase()
+                ));
+            }
+            Map<String, Object> meta = new HashMap<>();
+            meta.put("chatId", chat.getId());
+            meta.put("chatTitle", chat.getTitle());
+            meta.put("documents", fileDtos);
+            emitter.send(SseEmitter.event().name("meta").data(meta));
+        } catch (Exception ignored) {
+            // The batch is still analyzed and saved if the client disconnects.
+        }
+
+        try {
+            analyzeDocumentBatch(emitter, chat, userId, history, uploads, reservation);
+        } catch (RuntimeException e) {
+            reservation.close();
+            deleteUploadFiles(uploads);
+            sendSseError(emitter, "Failed to process the documents. Please try again.");
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_EVENT_STREAM)
+            .body(emitter);
+    }
+
+    private ResponseEntity<Map<String, Object>> uploadSingleDocument(
+        Long chatId,
+        MultipartFile file,
+        DocumentType type,
+        String missingFileMessage,
+        String failureMessage,
+        HttpServletRequest httpRequest
+    ) {
+        String invalid = validateUpload(file, missingFileMessage);
+        if (invalid != null) {
             return ResponseEntity.badRequest().body(
-                Map.of("error", "File too large. Please upload files up to 10MB.")
+                Map.of("error", invalid)
             );
         }
 
@@ -433,173 +509,61 @@ public class ChatController {
             );
         }
 
-        try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("error", "User not found.")
+        try (UploadBudgetService.Reservation reservation = uploadBudget.reserve(file.getSize())) {
+            if (reservation == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                    Map.of("error", "Too many uploads in progress. Please try again shortly.")
                 );
             }
-            User user = userOpt.get();
-
-            Chat chat;
-            boolean isNewChat = chatId == null;
-
-            if (isNewChat) {
-                chat = Chat.create(user, null);
-                chat = chatRepository.save(chat);
-            } else {
-                chat = chatRepository.findByIdAndUserId(chatId, userId).orElse(null);
-                if (chat == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                        Map.of("error", "Chat not found.")
-                    );
-                }
-            }
-
-            String fileName = file.getOriginalFilename() == null ? "accommodation" : file.getOriginalFilename();
-            String userMessageText = "Uploaded accommodation invoice: " + fileName;
-            ChatMessage userMessage = ChatMessage.create(chat, "user", userMessageText);
-            chatMessageRepository.save(userMessage);
-
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            String reply = chatService.analyzeAccommodation(history, fileName, file.getBytes(), contentType);
-            String cleanedReply = stripCodeFences(reply);
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", cleanedReply);
-            chatMessageRepository.save(assistantMessageEntity);
-
-            if (isNewChat) {
-                String title = "New travel chat";
-                try {
-                    title = chatService.generateTitle(userMessageText, reply);
-                } catch (Exception ignored) {
-                    // Title generation should not block document analysis.
-                }
-                chat.setTitle(title);
-                chatRepository.save(chat);
-            }
-
-            Map<String, Object> userDto = messageDto(userMessage);
-            Map<String, Object> assistantDto = messageDto(assistantMessageEntity);
 
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "chatTitle", chat.getTitle(),
-                    "messages", List.of(userDto, assistantDto)
-                )
+            String fileName = file.getOriginalFilename() == null ? defaultFileName(type) : file.getOriginalFilename();
+            String userMessageText = uploadMessageText(type, fileName);
+            ChatTurnService.Turn turn = chatTurnService.begin(userId, chatId, userMessageText);
+            Chat chat = turn.chat();
+            ChatMessage userMessage = turn.userMessage();
+
+            List<ChatMessage> history = contextWindow.window(chat, turn.history(), null);
+            String reply = documentAnalysisService.analyze(
+                userId,
+                type,
+                history,
+                new DocumentContent(fileName, file.getContentType(), file, file.getSize())
             );
+            ChatMessage assistantMessageEntity = chatTurnService.saveReply(chat, stripCodeFences(reply));
+
+            return documentAnalysisResponse(chat, userMessage, assistantMessageEntity, userMessageText, reply, turn.newChat());
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 Map.of("error", "OpenAI API key is not configured on the server.")
             );
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(
-                Map.of("error", "Failed to process the accommodation document. Please try again.")
+                Map.of("error", failureMessage)
             );
         }
     }
 
-    @PostMapping(value = "/api/chat/upload-document", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Map<String, Object>> uploadDocument(
-        @RequestParam(value = "chatId", required = false) Long chatId,
-        @RequestPart("file") MultipartFile file,
-        HttpServletRequest httpRequest
-    ) {
+    /**
+     * Returns the validation error for an uploaded file, or null when it can be analyzed.
+     */
+    private String validateUpload(MultipartFile file, String missingFileMessage) {
         if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "A document file is required.")
-            );
+            return missingFileMessage;
         }
 
         String contentType = file.getContentType();
         boolean supported = contentType != null
             && (contentType.startsWith("image/") || contentType.equalsIgnoreCase("application/pdf"));
         if (!supported) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "Only PDF or image files are supported.")
-            );
+            return "Only PDF or image files are supported.";
         }
 
-        final long maxSizeBytes = 10 * 1024 * 1024; // 10MB
-        if (file.getSize() > maxSizeBytes) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "File too large. Please upload files up to 10MB.")
-            );
-        }
-
-        Object uid = httpRequest.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
-        if (!(uid instanceof Long userId)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                Map.of("error", "Authentication required.")
-            );
-        }
-
-        try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("error", "User not found.")
-                );
-            }
-            User user = userOpt.get();
-
-            Chat chat;
-            boolean isNewChat = chatId == null;
-
-            if (isNewChat) {
-                chat = Chat.create(user, null);
-                chat = chatRepository.save(chat);
-            } else {
-                chat = chatRepository.findByIdAndUserId(chatId, userId).orElse(null);
-                if (chat == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                        Map.of("error", "Chat not found.")
-                    );
-                }
-            }
-
-            String fileName = file.getOriginalFilename() == null ? "document" : file.getOriginalFilename();
-            String userMessageText = "Uploaded document: " + fileName;
-            ChatMessage userMessage = ChatMessage.create(chat, "user", userMessageText);
-            chatMessageRepository.save(userMessage);
-
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            String reply = chatService.analyzeOtherDocument(history, fileName, file.getBytes(), contentType);
-            String cleanedReply = stripCodeFences(reply);
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", cleanedReply);
-            chatMessageRepository.save(assistantMessageEntity);
-
-            if (isNewChat) {
-                String title = "New travel chat";
-                try {
-                    title = chatService.generateTitle(userMessageText, reply);
-                } catch (Exception ignored) {
-                    // Title generation should not block document analysis.
-                }
-                chat.setTitle(title);
-                chatRepository.save(chat);
-            }
-
-            Map<String, Object> userDto = messageDto(userMessage);
-            Map<String, Object> assistantDto = messageDto(assistantMessageEntity);
-
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "chatTitle", chat.getTitle(),
-                    "messages", List.of(userDto, assistantDto)
-                )
-            );
-        } catch (IllegalStateException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
-                Map.of("error", "OpenAI API key is not configured on the server.")
-            );
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(
-                Map.of("error", "Failed to process the document. Please try again.")
-            );
+        if (file.getSize() > MAX_UPLOAD_BYTES) {
+            return "File too large. Please upload files up to 10MB.";
         }
+        return null;
     }
 
     @PostMapping("/api/chat/edit-latest")
@@ -625,53 +589,17 @@ public class ChatController {
             );
         }
 
-        Chat chat = chatRepository.findByIdAndUserId(request.getChatId(), userId).orElse(null);
-        if (chat == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                Map.of("error", "Chat not found.")
-            );
-        }
-
         try {
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            int lastUserIndex = findLastUserMessageIndex(history);
-            if (lastUserIndex < 0) {
-                return ResponseEntity.badRequest().body(
-                    Map.of("error", "No user message found to edit.")
-                );
-            }
-
-            ChatMessage lastUserMessage = history.get(lastUserIndex);
-            if (!lastUserMessage.getId().equals(request.getMessageId())) {
-                return ResponseEntity.badRequest().body(
-                    Map.of("error", "Only the latest user message can be edited.")
-                );
-            }
-            if (isUploadMessage(lastUserMessage.getText())) {
-                return ResponseEntity.badRequest().body(
-                    Map.of("error", "Editing uploaded documents is not supported.")
-                );
-            }
-
-            lastUserMessage.setText(request.getMessage().trim());
-            chatMessageRepository.save(lastUserMessage);
-
-            deleteMessagesAfterIndex(history, lastUserIndex);
-
-            List<ChatMessage> regenHistory = new ArrayList<>(history.subList(0, lastUserIndex + 1));
-            TripProfile profile = tripProfileRepository.findByChatId(chat.getId()).orElse(null);
-            String reply = stripCodeFences(chatService.chat(regenHistory, profile));
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", reply);
-            assistantMessageEntity.setItineraryJson(chatService.extractItineraryJson(reply));
-            chatMessageRepository.save(assistantMessageEntity);
-
-            List<ChatMessage> updated = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "messages", buildMessageDtos(updated)
-                )
+            ChatTurnService.Turn turn = chatTurnService.beginEdit(
+                userId,
+                request.getChatId(),
+                request.getMessageId(),
+                request.getMessage().trim()
             );
+            TripProfile profile = turn.profile();
+            return regeneratedReply(turn, chatService.chat(contextWindow.window(turn.chat(), turn.history(), profile), profile));
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 Map.of("error", "OpenAI API key is not configured on the server.")
@@ -701,45 +629,16 @@ public class ChatController {
             );
         }
 
-        Chat chat = chatRepository.findByIdAndUserId(request.getChatId(), userId).orElse(null);
-        if (chat == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
-                Map.of("error", "Chat not found.")
-            );
-        }
-
         try {
-            List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            int lastUserIndex = findLastUserMessageIndex(history);
-            if (lastUserIndex < 0) {
-                return ResponseEntity.badRequest().body(
-                    Map.of("error", "No user message found to regenerate.")
-                );
-            }
-
-            ChatMessage lastUserMessage = history.get(lastUserIndex);
-            if (isUploadMessage(lastUserMessage.getText())) {
-                return ResponseEntity.badRequest().body(
-                    Map.of("error", "Regeneration is not available for uploaded documents.")
-                );
-            }
-
-            deleteMessagesAfterIndex(history, lastUserIndex);
-
-            List<ChatMessage> regenHistory = new ArrayList<>(history.subList(0, lastUserIndex + 1));
-            TripProfile profile = tripProfileRepository.findByChatId(chat.getId()).orElse(null);
-            String reply = stripCodeFences(chatService.chat(regenHistory, profile));
-            ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", reply);
-            assistantMessageEntity.setItineraryJson(chatService.extractItineraryJson(reply));
-            chatMessageRepository.save(assistantMessageEntity);
-
-            List<ChatMessage> updated = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-            return ResponseEntity.ok(
-                Map.of(
-                    "chatId", chat.getId(),
-                    "messages", buildMessageDtos(updated)
-                )
+            ChatTurnService.Turn turn = chatTurnService.beginRegeneration(userId, request.getChatId());
+            TripProfile profile = turn.profile();
+            // Regenerating must produce a fresh answer, never the cached one.
+            return regeneratedReply(
+                turn,
+                chatService.chat(contextWindow.window(turn.chat(), turn.history(), profile), profile, true)
             );
+        } catch (ChatTurnException e) {
+            return turnError(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 Map.of("error", "OpenAI API key is not configured on the server.")
@@ -754,6 +653,9 @@ public class ChatController {
     @GetMapping("/api/chat/{id}/messages")
     public ResponseEntity<Map<String, Object>> getChatMessages(
         @PathVariable("id") Long chatId,
+        @RequestParam(value = "beforeId", required = false) Long beforeId,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "includeItinerary", defaultValue = "false") boolean includeItinerary,
         HttpServletRequest httpRequest
     ) {
         Object uid = httpRequest.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
@@ -770,17 +672,70 @@ public class ChatController {
             );
         }
 
-        List<ChatMessage> messages = chatMessageRepository.findByChatIdOrderByIdAsc(chatId);
-        List<Map<String, Object>> dto = messages.stream()
-            .map(this::messageDto)
-            .collect(Collectors.toList());
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = beforeId == null ? Long.MAX_VALUE : beforeId;
+        return ResponseEntity.ok(messagePage(chatId, cursor, pageSize, includeItinerary));
+    }
 
-        return ResponseEntity.ok(Map.of("messages", dto));
+    /**
+     * One page of a chat, oldest first within the page: {@code messages}, {@code hasMore} and
+     * {@code nextBeforeId} (the cursor for the page before it).
+     */
+    private Map<String, Object> messagePage(Long chatId, long cursor, int pageSize, boolean includeItinerary) {
+        // Fetch one extra row to know whether older messages exist.
+        List<Map<String, Object>> dto;
+        if (includeItinerary) {
+            dto = chatMessageRepository.findByChatIdAndIdLessThanOrderByIdDesc(chatId, cursor, Limit.of(pageSize + 1))
+                .stream()
+                .map(this::messageDto)
+                .collect(Collectors.toList());
+        } else {
+            dto = chatMessageRepository.findSummariesBefore(chatId, cursor, Limit.of(pageSize + 1))
+                .stream()
+                .map(this::messageDto)
+                .collect(Collectors.toList());
+        }
+
+        boolean hasMore = dto.size() > pageSize;
+        if (hasMore) {
+            dto = dto.subList(0, pageSize);
+        }
+        Collections.reverse(dto);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("messages", dto);
+        payload.put("hasMore", hasMore);
+        payload.put("nextBeforeId", dto.isEmpty() ? null : dto.getFirst().get("id"));
+        return payload;
     }
 
-    @DeleteMapping("/api/chat/{id}")
-    @Transactional
-    public ResponseEntity<Map<String, Object>> deleteChat(
+    @GetMapping("/api/chat/{id}/messages/{messageId}/itinerary")
+    public ResponseEntity<Map<String, Object>> getMessageItinerary(
+        @PathVariable("id") Long chatId,
+        @PathVariable("messageId") Long messageId,
+        HttpServletRequest httpRequest
+    ) {
+        Object uid = httpRequest.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
+        if (!(uid instanceof Long userId)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                Map.of("error", "Authentication required.")
+            );
+        }
+
+        if (chatRepository.findByIdAndUserId(chatId, userId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                Map.of("error", "Chat not found.")
+            );
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("messageId", messageId);
+        payload.put("itinerary", chatMessageRepository.findItineraryJson(chatId, messageId).orElse(null));
+        return ResponseEntity.ok(payload);
+    }
+
+    @GetMapping("/api/chat/{id}/post-processing")
+    public ResponseEntity<Map<String, Object>> getPostProcessingStatus(
         @PathVariable("id") Long chatId,
         HttpServletRequest httpRequest
     ) {
@@ -798,23 +753,300 @@ public class ChatController {
             );
         }
 
-        tripProfileRepository.deleteByChatId(chatId);
-        chatMessageRepository.deleteByChatId(chatId);
-        chatRepository.delete(chat);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("chatId", chat.getId());
+        payload.put("chatTitle", chat.getTitle());
+        payload.put("pending", postProcessingService.isPending(chat.getId()));
+        return ResponseEntity.ok(payload);
+    }
+
+    @DeleteMapping("/api/chat/{id}")
+    public ResponseEntity<Map<String, Object>> deleteChat(
+        @PathVariable("id") Long chatId,
+        HttpServletRequest httpRequest
+    ) {
+        Object uid = httpRequest.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
+        if (!(uid instanceof Long userId)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                Map.of("error", "Authentication required.")
+            );
+        }
+
+        if (!chatDeletionService.delete(userId, chatId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                Map.of("error", "Chat not found.")
+            );
+        }
 
         return ResponseEntity.ok(Map.of("success", true));
     }
 
-    private void streamAssistantReply(SseEmitter emitter, Chat chat, String userMessageText, boolean isNewChat) {
-        List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
-        TripProfile profile = tripProfileRepository.findByChatId(chat.getId()).orElse(null);
+    /**
+     * Saves the answer to an edited or regenerated turn and returns the chat's newest page, in
+     * the shape of {@code GET /api/chat/{id}/messages} (itineraries are loaded on demand).
+     */
+    private ResponseEntity<Map<String, Object>> regeneratedReply(ChatTurnService.Turn turn, String modelReply) {
+        Chat chat = turn.chat();
+        String reply = stripCodeFences(modelReply);
+        ChatMessage assistantMessageEntity = chatTurnService.saveReply(chat, reply);
+        postProcessingService.submit(chat.getId(), assistantMessageEntity.getId(), null, reply, true, false);
+
+        Map<String, Object> payload = messagePage(chat.getId(), Long.MAX_VALUE, DEFAULT_PAGE_SIZE, false);
+        payload.put("chatId", chat.getId());
+        payload.put("postProcessing", "pending");
+        return ResponseEntity.ok(payload);
+    }
+
+    private ResponseEntity<Map<String, Object>> turnError(ChatTurnException e) {
+        return ResponseEntity.status(e.getStatus()).body(
+            Map.of("error", e.getMessage())
+        );
+    }
+
+    private ResponseEntity<Map<String, Object>> documentAnalysisResponse(
+        Chat chat,
+        ChatMessage userMessage,
+        ChatMessage assistantMessage,
+        String userMessageText,
+        String reply,
+        boolean isNewChat
+    ) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("chatId", chat.getId());
+        payload.put("chatTitle", chat.getTitle());
+        payload.put("messages", List.of(messageDto(userMessage), messageDto(assistantMessage)));
+        if (isNewChat) {
+            // Title generation should not block document analysis.
+            postProcessingService.submit(chat.getId(), assistantMessage.getId(), userMessageText, reply, false, true);
+            payload.put("postProcessing", "pending");
+        }
+        return ResponseEntity.ok(payload);
+    }
+
+    /**
+     * Starts one analysis per file on the document analysis pool; the last one to finish
+     * saves the batch and completes the emitter. Wall time follows the slowest file.
+     */
+    private void analyzeDocumentBatch(
+        SseEmitter emitter,
+        Chat chat,
+        Long userId,
+        List<ChatMessage> history,
+        List<DocumentUpload> uploads,
+        UploadBudgetService.Reservation reservation
+    ) {
+        List<CompletableFuture<String>> analyses = new ArrayList<>(uploads.size());
+        for (int i = 0; i < uploads.size(); i++) {
+            final int index = i;
+            final DocumentUpload upload = uploads.get(i);
+            CompletableFuture<String> analysis;
+            try {
+                analysis = CompletableFuture.supplyAsync(
+                    () -> analyzeUpload(emitter, userId, history, index, upload),
+                    documentAnalysisExecutor
+                );
+            } catch (RejectedExecutionException e) {
+                analysis = CompletableFuture.failedFuture(e);
+            }
+            analyses.add(analysis.whenComplete((reply, error) -> sendDocumentProgress(emitter, index, upload, error)));
+        }
+
+        CompletableFuture.allOf(analyses.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, error) -> {
+                try {
+                    finishDocumentBatch(emitter, chat, uploads, analyses);
+                } finally {
+                    reservation.close();
+                    deleteUploadFiles(uploads);
+                }
+            });
+    }
+
+    private String analyzeUpload(SseEmitter emitter, Long userId, List<ChatMessage> history, int index, DocumentUpload upload) {
+        sendDocumentEvent(emitter, Map.of(
+            "index", index,
+            "fileName", upload.content().getFileName(),
+            "status", "analyzing"
+        ));
+        List<ChatMessage> fileHistory = new ArrayList<>(history.size() + 1);
+        fileHistory.addAll(history);
+        fileHistory.add(ChatMessage.create(null, "user", uploadMessageText(upload.type(), upload.content().getFileName())));
+        try {
+            return documentAnalysisService.analyze(userId, upload.type(), fileHistory, upload.content());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendDocumentProgress(SseEmitter emitter, int index, DocumentUpload upload, Throwable error) {
+        if (error == null) {
+            sendDocumentEvent(emitter, Map.of(
+                "index", index,
+                "fileName", upload.content().getFileName(),
+                "status", "done"
+            ));
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message;
+        if (cause instanceof RejectedExecutionException) {
+            message = "Too many documents in progress. Please try again shortly.";
+        } else if (cause instanceof IllegalStateException) {
+            message = "OpenAI API key is not configured on the server.";
+        } else {
+            message = "Failed to process the document. Please try again.";
+        }
+        LOG.warn("Document analysis failed for {}: {}", upload.content().getFileName(), cause.getMessage());
+        sendDocumentEvent(emitter, Map.of(
+            "index", index,
+            "fileName", upload.content().getFileName(),
+            "status", "error",
+            "error", message
+        ));
+    }
+
+    private void sendDocumentEvent(SseEmitter emitter, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name("document").data(data));
+        } catch (Exception ignored) {
+            // Keep analyzing; the batch owns its files, so the results are saved even if the client is gone.
+        }
+    }
+
+    private void finishDocumentBatch(
+        SseEmitter emitter,
+        Chat chat,
+        List<DocumentUpload> uploads,
+        List<CompletableFuture<String>> analyses
+    ) {
+        List<ChatMessage> batch = new ArrayList<>(uploads.size() * 2);
+        int failed = 0;
+        for (int i = 0; i < uploads.size(); i++) {
+            CompletableFuture<String> analysis = analyses.get(i);
+            if (analysis.isCompletedExceptionally()) {
+                failed++;
+                continue;
+            }
+            DocumentUpload upload = uploads.get(i);
+            batch.add(ChatMessage.create(chat, "user", uploadMessageText(upload.type(), upload.content().getFileName())));
+            batch.add(ChatMessage.create(chat, "assistant", stripCodeFences(analysis.join())));
+        }
+
+        try {
+            List<ChatMessage> saved = batch.isEmpty() ? List.of() : chatMessageRepository.saveAll(batch);
+
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("chatId", chat.getId());
+            payload.put("chatTitle", chat.getTitle());
+            payload.put("messages", buildMessageDtos(saved));
+            payload.put("failed", failed);
+            if (chat.getTitle() == null && !saved.isEmpty()) {
+                // Untitled chats get their title from the first analyzed document, as for single uploads.
+                ChatMessage firstUpload = saved.get(0);
+                ChatMessage firstAnalysis = saved.get(1);
+                postProcessingService.submit(
+                    chat.getId(), firstAnalysis.getId(), firstUpload.getText(), firstAnalysis.getText(), false, true
+                );
+                payload.put("postProcessing", "pending");
+            }
+            emitter.send(SseEmitter.event().name("done").data(payload));
+            emitter.complete();
+        } catch (Exception e) {
+            LOG.warn("Failed to save document analyses for chat {}: {}", chat.getId(), e.getMessage());
+            sendSseError(emitter, "Failed to save the document analyses. Please try again.");
+        }
+    }
+
+    private DocumentType parseDocumentType(String hint) {
+        if (hint == null || hint.isBlank()) {
+            return DocumentType.OTHER;
+        }
+        return switch (hint.trim().toLowerCase()) {
+            case "ticket" -> DocumentType.TICKET;
+            case "accommodation" -> DocumentType.ACCOMMODATION;
+            case "other", "document" -> DocumentType.OTHER;
+            default -> null;
+        };
+    }
+
+    private String defaultFileName(DocumentType type) {
+        return switch (type) {
+            case TICKET -> "ticket";
+            case ACCOMMODATION -> "accommodation";
+            case OTHER -> "document";
+        };
+    }
+
+    private String uploadMessageText(DocumentType type, String fileName) {
+        return switch (type) {
+            case TICKET -> "Uploaded airplane ticket: ";
+            case ACCOMMODATION -> "Uploaded accommodation invoice: ";
+            case OTHER -> "Uploaded document: ";
+        } + fileName;
+    }
+
+    /**
+     * {@code file} is the batch's own copy of the upload, set by {@link #takeOwnership}.
+     */
+    private record DocumentUpload(DocumentType type, DocumentContent content, Path file) {
+    }
+
+    /**
+     * Moves each part into a temp file owned by the batch. The spooled parts are deleted when
+     * the request ends, which a client disconnecting from the stream brings forward, while the
+     * analyses still reopen the content for hashing, PDF extraction and the request body.
+     * The files are deleted once the whole batch has finished.
+     */
+    private List<DocumentUpload> takeOwnership(List<MultipartFile> files, List<DocumentUpload> uploads) throws IOException {
+        List<DocumentUpload> owned = new ArrayList<>(uploads.size());
+        try {
+            for (int i = 0; i < uploads.size(); i++) {
+                DocumentUpload upload = uploads.get(i);
+                DocumentContent content = upload.content();
+                Path file = Files.createTempFile("document-upload-", null);
+                owned.add(new DocumentUpload(
+                    upload.type(),
+                    new DocumentContent(content.getFileName(), content.getContentType(), new FileSystemResource(file), content.getSize()),
+                    file
+                ));
+                // Usually a rename of the part already spooled to disk rather than a copy.
+                files.get(i).transferTo(file.toFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteUploadFiles(owned);
+            throw e;
+        }
+        return owned;
+    }
+
+    private void deleteUploadFiles(List<DocumentUpload> uploads) {
+        for (DocumentUpload upload : uploads) {
+            if (upload.file() == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(upload.file());
+            } catch (IOException e) {
+                LOG.warn("Failed to delete uploaded file {}: {}", upload.file(), e.getMessage());
+            }
+        }
+    }
+
+    private void streamAssistantReply(
+        SseEmitter emitter,
+        ChatTurnService.Turn turn,
+        String userMessageText,
+        boolean bypassCache
+    ) {
+        Chat chat = turn.chat();
+        TripProfile profile = turn.profile();
+        List<ChatMessage> history = contextWindow.window(chat, turn.history(), profile);
 
         String reply;
         boolean usedStreamingFallback = false;
-        try {
-            reply = stripCodeFences(
-                chatService.streamChat(history, profile, chunk -> sendDelta(emitter, chunk))
-            );
+        // Closing the buffer flushes the remaining text before any error or done event is sent.
+        try (SseDeltaCoalescer.Buffer deltas = deltaCoalescer.open(emitter)) {
+            reply = stripCodeFences(chatService.streamChat(history, profile, deltas, bypassCache));
         } catch (IllegalStateException e) {
             sendSseError(emitter, "OpenAI API key is not configured on the server.");
             return;
@@ -823,7 +1055,7 @@ public class ChatController {
             sendStreamWarning(emitter, "Streaming unavailable, falling back to full response.", streamingError);
             usedStreamingFallback = true;
             try {
-                reply = stripCodeFences(chatService.chat(history, profile));
+                reply = stripCodeFences(chatService.chat(history, profile, bypassCache));
             } catch (IllegalStateException e) {
                 sendSseError(emitter, "OpenAI API key is not configured on the server.");
                 return;
@@ -837,20 +1069,16 @@ public class ChatController {
             reply = "The recommendation engine did not return any content.";
         }
 
-        ChatMessage assistantMessageEntity = ChatMessage.create(chat, "assistant", reply);
-        assistantMessageEntity.setItineraryJson(chatService.extractItineraryJson(reply));
-        chatMessageRepository.save(assistantMessageEntity);
+        ChatMessage assistantMessageEntity = chatTurnService.saveReply(chat, reply);
 
-        if (isNewChat) {
-            String title = "New travel chat";
-            try {
-                title = chatService.generateTitle(userMessageText, reply);
-            } catch (Exception ignored) {
-                // Title generation should not block delivering recommendations.
-            }
-            chat.setTitle(title);
-            chatRepository.save(chat);
-        }
+        CompletableFuture<PostProcessingResult> postProcessing = postProcessingService.submit(
+            chat.getId(),
+            assistantMessageEntity.getId(),
+            userMessageText,
+            reply,
+            true,
+            turn.newChat()
+        );
 
         Map<String, Object> payload = new HashMap<>();
         payload.put("chatId", chat.getId());
@@ -860,33 +1088,43 @@ public class ChatController {
             assistantDto.put("streamingFallback", true);
         }
         payload.put("message", assistantDto);
+        payload.put("postProcessing", "pending");
 
         try {
             emitter.send(SseEmitter.event().name("done").data(payload));
         } catch (Exception ignored) {
             // Client might have disconnected; still persist the reply.
-        } finally {
+        }
+
+        // Keep the stream open until the itinerary and title are ready, then push them as a follow-up event.
+        postProcessing.whenComplete((result, error) -> {
             try {
-                emitter.complete();
+                if (result != null) {
+                    emitter.send(SseEmitter.event().name("post-processed").data(postProcessingDto(result)));
+                }
             } catch (Exception ignored) {
-                // Ignore completion issues.
+                // Client might have disconnected; results are already persisted.
+            } finally {
+                try {
+                    emitter.complete();
+                } catch (Exception ignored) {
+                    // Ignore completion issues.
+                }
             }
-        }
+        });
     }
 
-    private void sendDelta(SseEmitter emitter, String chunk) {
-        if (emitter == null || chunk == null || chunk.isBlank()) {
-            return;
+    private Map<String, Object> postProcessingDto(PostProcessingResult result) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("chatId", result.getChatId());
+        dto.put("messageId", result.getMessageId());
+        if (result.getChatTitle() != null) {
+            dto.put("chatTitle", result.getChatTitle());
         }
-        try {
-            emitter.send(
-                SseEmitter.event()
-                    .name("delta")
-                    .data(Map.of("content", chunk))
-            );
-        } catch (Exception ignored) {
-            // Client likely disconnected.
+        if (result.getItineraryJson() != null) {
+            dto.put("itinerary", result.getItineraryJson());
         }
+        return dto;
     }
 
     private void sendStreamWarning(SseEmitter emitter, String message, Exception cause) {
@@ -926,7 +1164,7 @@ public class ChatController {
         }
     }
 
-    private List<Map<String, Object>> buildMessageDtos(List<ChatMessage> messages) {
+    List<Map<String, Object>> buildMessageDtos(List<ChatMessage> messages) {
         if (messages == null || messages.isEmpty()) {
             return List.of();
         }
@@ -935,7 +1173,7 @@ public class ChatController {
             .collect(Collectors.toList());
     }
 
-    private Map<String, Object> messageDto(ChatMessage message) {
+    Map<String, Object> messageDto(ChatMessage message) {
         String content = message.getText();
         if ("assistant".equals(message.getRole())) {
             content = stripCodeFences(content);
@@ -951,42 +1189,23 @@ public class ChatController {
         return dto;
     }
 
-    private int findLastUserMessageIndex(List<ChatMessage> messages) {
-        if (messages == null || messages.isEmpty()) {
-            return -1;
-        }
-        for (int i = messages.size() - 1; i >= 0; i--) {
-            ChatMessage message = messages.get(i);
-            if (message != null && "user".equals(message.getRole())) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private void deleteMessagesAfterIndex(List<ChatMessage> messages, int lastUserIndex) {
-        if (messages == null || lastUserIndex < 0) {
-            return;
-        }
-        for (int i = messages.size() - 1; i > lastUserIndex; i--) {
-            ChatMessage message = messages.get(i);
-            if (message != null) {
-                chatMessageRepository.delete(message);
-            }
+    private Map<String, Object> messageDto(ChatMessageSummary message) {
+        String content = message.getText();
+        if ("assistant".equals(message.getRole())) {
+            content = stripCodeFences(content);
         }
-    }
-
-    private boolean isUploadMessage(String text) {
-        if (text == null) {
-            return false;
+        Map<String, Object> dto = new java.util.HashMap<>();
+        dto.put("id", message.getId());
+        dto.put("role", message.getRole());
+        dto.put("content", content);
+        dto.put("timestamp", "");
+        if (Boolean.TRUE.equals(message.getHasItinerary())) {
+            dto.put("hasItinerary", true);
         }
-        String normalized = text.trim().toLowerCase();
-        return normalized.startsWith("uploaded airplane ticket:")
-            || normalized.startsWith("uploaded accommodation invoice:")
-            || normalized.startsWith("uploaded document:");
+        return dto;
     }
 
-    private String stripCodeFences(String content) {
+    String stripCodeFences(String content) {
         if (content == null) {
             return null;
         }
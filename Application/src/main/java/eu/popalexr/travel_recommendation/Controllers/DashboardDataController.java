@@ -1,11 +1,12 @@
 package eu.popalexr.travel_recommendation.Controllers;
 
 import eu.popalexr.travel_recommendation.Constants.SessionConstants;
+import eu.popalexr.travel_recommendation.DTOs.ChatMessageSummary;
 import eu.popalexr.travel_recommendation.Models.Chat;
-import eu.popalexr.travel_recommendation.Models.ChatMessage;
 import eu.popalexr.travel_recommendation.Repositories.ChatMessageRepository;
 import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 @RestController
 public class DashboardDataController {
 
+    private static final int MESSAGE_WINDOW = 50;
+
     private final ChatRepository chatRepository;
     private final ChatMessageRepository chatMessageRepository;
 
@@ -50,12 +53,20 @@ public class DashboardDataController {
             .collect(Collectors.toList());
 
         List<Map<String, Object>> chatMessages;
+        boolean hasMoreMessages = false;
         if (chats.isEmpty()) {
             chatMessages = Collections.emptyList();
         } else {
             Chat latest = chats.getFirst();
-            List<ChatMessage> messages = chatMessageRepository.findByChatIdOrderByIdAsc(latest.getId());
+            // Only the newest window is sent; older messages are paged in via /api/chat/{id}/messages.
+            List<ChatMessageSummary> messages = chatMessageRepository.findSummariesBefore(
+                latest.getId(),
+                Long.MAX_VALUE,
+                Limit.of(MESSAGE_WINDOW + 1)
+            );
+            hasMoreMessages = messages.size() > MESSAGE_WINDOW;
             chatMessages = messages.stream()
+                .limit(MESSAGE_WINDOW)
                 .map(msg -> {
                     Map<String, Object> dto = new java.util.HashMap<>();
                     String content = "assistant".equals(msg.getRole())
@@ -65,18 +76,20 @@ public class DashboardDataController {
                     dto.put("role", msg.getRole());
                     dto.put("content", content);
                     dto.put("timestamp", "");
-                    if (msg.getItineraryJson() != null && !msg.getItineraryJson().isBlank()) {
-                        dto.put("itinerary", msg.getItineraryJson());
+                    if (Boolean.TRUE.equals(msg.getHasItinerary())) {
+                        dto.put("hasItinerary", true);
                     }
                     return dto;
                 })
                 .collect(Collectors.toList());
+            Collections.reverse(chatMessages);
         }
 
         return ResponseEntity.ok(
             Map.of(
                 "previousRecommendations", previousRecommendations,
-                "chatMessages", chatMessages
+                "chatMessages", chatMessages,
+                "hasMoreMessages", hasMoreMessages
             )
         );
     }
@@ -8,6 +8,7 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import eu.popalexr.travel_recommendation.Repositories.AuthSessionRepository;
+import eu.popalexr.travel_recommendation.Security.AuthSessionCache;
 import eu.popalexr.travel_recommendation.Security.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
@@ -19,13 +20,16 @@ public class SessionController {
     private final String jwtCookieName;
     private final AuthSessionRepository sessionRepository;
     private final JwtService jwtService;
+    private final AuthSessionCache sessionCache;
 
     public SessionController(@Value("${jwt.cookie-name:AUTH_TOKEN}") String jwtCookieName,
                              AuthSessionRepository sessionRepository,
-                             JwtService jwtService) {
+                             JwtService jwtService,
+                             AuthSessionCache sessionCache) {
         this.jwtCookieName = jwtCookieName;
         this.sessionRepository = sessionRepository;
         this.jwtService = jwtService;
+        this.sessionCache = sessionCache;
     }
 
     @PostMapping("/logout")
@@ -49,6 +53,7 @@ public class SessionController {
                         s.revoke(LocalDateTime.now());
                         sessionRepository.save(s);
                     });
+                    sessionCache.invalidate(jti);
                 }
             });
         }
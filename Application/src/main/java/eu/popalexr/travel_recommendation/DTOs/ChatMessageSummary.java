@@ -0,0 +1,15 @@
+package eu.popalexr.travel_recommendation.DTOs;
+
+/**
+ * Lightweight view of a chat message without the itinerary JSON payload.
+ */
+public interface ChatMessageSummary {
+
+    Long getId();
+
+    String getRole();
+
+    String getText();
+
+    Boolean getHasItinerary();
+}
@@ -0,0 +1,14 @@
+package eu.popalexr.travel_recommendation.DTOs;
+
+import eu.popalexr.travel_recommendation.Models.Chat;
+import eu.popalexr.travel_recommendation.Models.TripProfile;
+
+/**
+ * A chat owned by the requesting user together with its trip profile (null when it has none).
+ */
+public interface ChatTurnContext {
+
+    Chat getChat();
+
+    TripProfile getProfile();
+}
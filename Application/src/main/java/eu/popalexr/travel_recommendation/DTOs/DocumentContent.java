@@ -0,0 +1,94 @@
+package eu.popalexr.travel_recommendation.DTOs;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An uploaded file handed to document analysis. The content is read from {@code source} as a
+ * stream (a {@code MultipartFile} spooled to disk for uploads) and may be opened more than once.
+ * {@code extractedText} is set when the PDF text is already known (e.g. from an earlier upload
+ * of the same bytes), so PDFBox can be skipped. {@code extractionFailed} records that extraction
+ * was already attempted for this upload and gave nothing, so it is not tried again.
+ */
+public class DocumentContent {
+
+    private final String fileName;
+    private final String contentType;
+    private final InputStreamSource source;
+    private final long size;
+    private final String extractedText;
+    private final boolean extractionFailed;
+
+    public DocumentContent(String fileName, String contentType, InputStreamSource source, long size) {
+        this(fileName, contentType, source, size, null);
+    }
+
+    public DocumentContent(String fileName, String contentType, InputStreamSource source, long size, String extractedText) {
+        this(fileName, contentType, source, size, extractedText, false);
+    }
+
+    private DocumentContent(
+        String fileName,
+        String contentType,
+        InputStreamSource source,
+        long size,
+        String extractedText,
+        boolean extractionFailed
+    ) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.source = source;
+        this.size = size;
+        this.extractedText = extractedText;
+        this.extractionFailed = extractionFailed;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public InputStreamSource getSource() {
+        return source;
+    }
+
+    public InputStream openStream() throws IOException {
+        return source.getInputStream();
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return source == null || size <= 0;
+    }
+
+    public String getExtractedText() {
+        return extractedText;
+    }
+
+    public boolean isExtractionFailed() {
+        return extractionFailed;
+    }
+
+    public boolean isPdf() {
+        return "application/pdf".equalsIgnoreCase(contentType);
+    }
+
+    public DocumentContent withExtractedText(String text) {
+        return new DocumentContent(fileName, contentType, source, size, text, false);
+    }
+
+    /**
+     * Marks the text as unavailable after a failed extraction (timeout, full pool, corrupt PDF).
+     */
+    public DocumentContent withExtractionFailed() {
+        return new DocumentContent(fileName, contentType, source, size, null, true);
+    }
+}
@@ -0,0 +1,32 @@
+package eu.popalexr.travel_recommendation.DTOs;
+
+public class PostProcessingResult {
+
+    private final Long chatId;
+    private final Long messageId;
+    private final String chatTitle;
+    private final String itineraryJson;
+
+    public PostProcessingResult(Long chatId, Long messageId, String chatTitle, String itineraryJson) {
+        this.chatId = chatId;
+        this.messageId = messageId;
+        this.chatTitle = chatTitle;
+        this.itineraryJson = itineraryJson;
+    }
+
+    public Long getChatId() {
+        return chatId;
+    }
+
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public String getChatTitle() {
+        return chatTitle;
+    }
+
+    public String getItineraryJson() {
+        return itineraryJson;
+    }
+}
@@ -0,0 +1,21 @@
+package eu.popalexr.travel_recommendation.Exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a chat turn cannot start, e.g. the chat does not belong to the user or there is
+ * no message to regenerate. Carries the status the API answers with.
+ */
+public class ChatTurnException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public ChatTurnException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -34,6 +35,17 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorBody(ex.getMessage(), null));
     }
 
+    /**
+     * Uploads over the servlet multipart limits are rejected before reaching the controller;
+     * answered in the upload endpoints' own {@code error} shape.
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(
+            Map.of("error", "Upload too large. Please upload files up to 10MB, at most 10 at once.")
+        );
+    }
+
     private Map<String, Object> errorBody(String message, Map<String, String> details) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("timestamp", Instant.now().toString());
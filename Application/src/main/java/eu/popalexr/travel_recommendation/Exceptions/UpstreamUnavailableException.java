@@ -0,0 +1,10 @@
+package eu.popalexr.travel_recommendation.Exceptions;
+
+/**
+ * Thrown without calling the upstream when its circuit breaker is open.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,8 @@
 package eu.popalexr.travel_recommendation.Filters;
 
 import eu.popalexr.travel_recommendation.Constants.SessionConstants;
+import eu.popalexr.travel_recommendation.Security.AuthSessionCache;
 import eu.popalexr.travel_recommendation.Security.JwtService;
-import eu.popalexr.travel_recommendation.Repositories.AuthSessionRepository;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,14 +23,14 @@ import java.util.Optional;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final AuthSessionRepository sessionRepository;
+    private final AuthSessionCache sessionCache;
     private final String cookieName;
 
     public JwtAuthenticationFilter(JwtService jwtService,
-                                   AuthSessionRepository sessionRepository,
+                                   AuthSessionCache sessionCache,
                                    @Value("${jwt.cookie-name:AUTH_TOKEN}") String cookieName) {
         this.jwtService = jwtService;
-        this.sessionRepository = sessionRepository;
+        this.sessionCache = sessionCache;
         this.cookieName = cookieName;
     }
 
@@ -62,8 +62,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 Long uid = decoded.getClaim("uid").asLong();
                 String jti = safeJti(decoded);
                 if (uid != null && jti != null) {
-                    sessionRepository.findById(jti).ifPresent(session -> {
-                        if (session.getUserId().equals(uid) && session.isActive(java.time.LocalDateTime.now())) {
+                    sessionCache.find(jti).ifPresent(session -> {
+                        if (session.userId().equals(uid) && session.isActive(java.time.LocalDateTime.now())) {
                             request.setAttribute(SessionConstants.AUTHENTICATED_USER_ID, uid);
                             // also expose session id for logout
                             request.setAttribute("AUTH_SESSION_ID", jti);
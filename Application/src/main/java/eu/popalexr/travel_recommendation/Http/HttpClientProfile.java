@@ -0,0 +1,88 @@
+package eu.popalexr.travel_recommendation.Http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A named outbound HTTP client (one per upstream) with its own connection pool, timeouts
+ * and metrics.
+ *
+ * <p>Each profile prefers HTTP/2, so concurrent calls to the same host share one multiplexed
+ * connection, and runs the client's callbacks on virtual threads instead of the default
+ * cached pool. The JDK client has no socket read timeout; {@link #requestTimeout(Duration)}
+ * caps each request's wait for a response by the profile's read timeout instead.
+ *
+ * <p>Metrics, tagged with {@code client}: {@code http.client.active.streams} (exchanges
+ * in progress, until the body is fully read or abandoned) and {@code http.client.tls.handshake}
+ * (time to complete the TLS handshake of each new connection; its count is the number of
+ * connections opened).
+ */
+public final class HttpClientProfile implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClientProfile.class);
+
+    public record Settings(HttpClient.Version version, Duration connectTimeout, Duration readTimeout) {
+    }
+
+    private final String name;
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration readTimeout;
+
+    private HttpClientProfile(String name, HttpClient client, ExecutorService executor, Duration readTimeout) {
+        this.name = name;
+        this.client = client;
+        this.executor = executor;
+        this.readTimeout = readTimeout;
+    }
+
+    public static HttpClientProfile create(String name, Settings settings, MeterRegistry meterRegistry) {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("http-" + name + "-", 0).factory()
+        );
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(settings.version())
+            .connectTimeout(settings.connectTimeout())
+            .executor(executor);
+        try {
+            builder.sslContext(new HandshakeTimingSslContext(SSLContext.getDefault(), name, meterRegistry));
+        } catch (NoSuchAlgorithmException e) {
+            LOG.warn("TLS handshake metrics unavailable for {}: {}", name, e.getMessage());
+        }
+        HttpClient client = new InstrumentedHttpClient(builder.build(), name, meterRegistry);
+        return new HttpClientProfile(name, client, executor, settings.readTimeout());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public HttpClient client() {
+        return client;
+    }
+
+    public Duration readTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * The timeout for a request that must finish within {@code deadline}: whichever is shorter.
+     */
+    public Duration requestTimeout(Duration deadline) {
+        return deadline.compareTo(readTimeout) < 0 ? deadline : readTimeout;
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+package eu.popalexr.travel_recommendation.Http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delegates to a JDK {@link HttpClient} and counts the exchanges in progress. An exchange
+ * ends when its body has been fully received, fails, or is abandoned by the caller
+ * (e.g. a streamed body closed early or a request cancelled after its deadline).
+ */
+final class InstrumentedHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    InstrumentedHttpClient(HttpClient delegate, String name, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        Gauge.builder("http.client.active.streams", activeStreams, AtomicInteger::get)
+            .description("Outbound HTTP exchanges in progress")
+            .tag("client", name)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+        throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<T>> response = sendAsync(request, handler);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return sendAsync(request, handler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> handler,
+        HttpResponse.PushPromiseHandler<T> pushPromiseHandler
+    ) {
+        Exchange exchange = new Exchange();
+        CompletableFuture<HttpResponse<T>> response;
+        try {
+            response = delegate.sendAsync(request, info -> new TrackingSubscriber<>(handler.apply(info), exchange), pushPromiseHandler);
+        } catch (RuntimeException e) {
+            exchange.end();
+            throw e;
+        }
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                // Cancelling the caller's view must also abort the exchange itself.
+                response.cancel(mayInterruptIfRunning);
+                exchange.end();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        response.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                exchange.end();
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return delegate.newWebSocketBuilder();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(Duration duration) throws InterruptedException {
+        return delegate.awaitTermination(duration);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public void shutdownNow() {
+        delegate.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private final class Exchange {
+
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        Exchange() {
+            activeStreams.incrementAndGet();
+        }
+
+        void end() {
+            if (ended.compareAndSet(false, true)) {
+                activeStreams.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class TrackingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final Exchange exchange;
+
+        TrackingSubscriber(HttpResponse.BodySubscriber<T> delegate, Exchange exchange) {
+            this.delegate = delegate;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    exchange.end();
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            exchange.end();
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            exchange.end();
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package eu.popalexr.travel_recommendation.Interceptors;
+
+import eu.popalexr.travel_recommendation.Constants.SessionConstants;
+import eu.popalexr.travel_recommendation.Services.RateLimitStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Per-user limits on the endpoints that call OpenAI. Each user has a token bucket of
+ * {@code rate-limit.capacity} requests refilled at {@code rate-limit.refill-per-minute}, and
+ * at most {@code rate-limit.max-concurrent} of these requests in progress. A streamed response
+ * keeps its slot until the SSE connection completes, fails or times out.
+ *
+ * <p>Rejections are answered with 429 and {@code Retry-After}. Runs after
+ * {@link AuthenticatedInterceptor}, which has already turned away anonymous requests.
+ */
+@Component
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LEASE_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".LEASE";
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final int maxConcurrent;
+    private final Duration concurrencyRetryAfter;
+    private final Counter rateRejections;
+    private final Counter concurrencyRejections;
+
+    public RateLimitInterceptor(
+        RateLimitStore store,
+        MeterRegistry meterRegistry,
+        @Value("${rate-limit.enabled:true}") boolean enabled,
+        @Value("${rate-limit.capacity:20}") int capacity,
+        @Value("${rate-limit.refill-per-minute:10}") double refillPerMinute,
+        @Value("${rate-limit.max-concurrent:3}") int maxConcurrent,
+        @Value("${rate-limit.concurrency-retry-after-seconds:5}") long concurrencyRetryAfterSeconds
+    ) {
+        this.store = store;
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        this.refillPerSecond = refillPerMinute / 60.0;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.concurrencyRetryAfter = Duration.ofSeconds(Math.max(1, concurrencyRetryAfterSeconds));
+
+        this.rateRejections = Counter.builder("rate-limit.rejected")
+            .description("AI requests rejected by the per-user limits")
+            .tag("reason", "rate")
+            .register(meterRegistry);
+        this.concurrencyRejections = Counter.builder("rate-limit.rejected")
+            .description("AI requests rejected by the per-user limits")
+            .tag("reason", "concurrency")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object uid = request.getAttribute(SessionConstants.AUTHENTICATED_USER_ID);
+        if (!(uid instanceof Long userId)) {
+            return true;
+        }
+
+        RateLimitStore.Lease lease = store.tryAcquire("ai-concurrent:" + userId, maxConcurrent);
+        if (lease == null) {
+            concurrencyRejections.increment();
+            reject(response, concurrencyRetryAfter, "You already have too many recommendations in progress. Please wait for one to finish.");
+            return false;
+        }
+
+        Duration wait = store.tryConsume("ai-requests:" + userId, capacity, refillPerSecond);
+        if (!wait.isZero()) {
+            lease.close();
+            rateRejections.increment();
+            reject(response, wait, "Too many requests. Please wait a moment and try again.");
+            return false;
+        }
+
+        request.setAttribute(LEASE_ATTRIBUTE, lease);
+        return true;
+    }
+
+    /**
+     * The handler returned an SSE emitter; keep the slot until the async request ends. A client
+     * that disconnects ends it through the error callback without another dispatch.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(LEASE_ATTRIBUTE) instanceof RateLimitStore.Lease lease) || !request.isAsyncStarted()) {
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                lease.close();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                lease.close();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                lease.close();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                event.getAsyncContext().addListener(this);
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(LEASE_ATTRIBUTE) instanceof RateLimitStore.Lease lease) {
+            lease.close();
+        }
+    }
+
+    private void reject(HttpServletResponse response, Duration retryAfter, String message) throws IOException {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType("application/json");
+        String safeMessage = message.replace("\"", "\\\"");
+        response.getWriter().write("{\"error\":\"" + safeMessage + "\"}");
+    }
+}
@@ -3,6 +3,7 @@ package eu.popalexr.travel_recommendation.Models;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
@@ -10,7 +11,13 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "auth_sessions")
+@Table(
+    name = "auth_sessions",
+    indexes = {
+        @Index(name = "idx_auth_sessions_user_id", columnList = "user_id"),
+        @Index(name = "idx_auth_sessions_expires_at", columnList = "expires_at")
+    }
+)
 public class AuthSession {
 
     @Id
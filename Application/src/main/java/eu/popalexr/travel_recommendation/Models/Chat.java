@@ -1,13 +1,23 @@
 package eu.popalexr.travel_recommendation.Models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chats")
+@Table(
+    name = "chats",
+    indexes = {
+        @Index(name = "idx_chats_user_id_id", columnList = "user_id, id desc"),
+        @Index(name = "idx_chats_deleted_at", columnList = "deleted_at")
+    }
+)
+@SQLRestriction("deleted_at is null")
 public class Chat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -17,6 +27,20 @@ public class Chat {
     @Column(name = "title", length = 255)
     private String title;
 
+    @Lob
+    @Column(name = "history_summary", columnDefinition = "LONGTEXT")
+    private String historySummary;
+
+    @Column(name = "summary_through_message_id")
+    private Long summaryThroughMessageId;
+
+    /**
+     * Set when the chat is deleted in soft-delete mode; such chats are invisible to entity
+     * queries until the background purge removes them.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     protected Chat() {
         // for JPA
     }
@@ -45,5 +69,12 @@ public class Chat {
     public void setTitle(String title) {
         this.title = title;
     }
-}
 
+    public String getHistorySummary() {
+        return historySummary;
+    }
+
+    public Long getSummaryThroughMessageId() {
+        return summaryThroughMessageId;
+    }
+}
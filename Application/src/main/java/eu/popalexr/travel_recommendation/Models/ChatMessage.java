@@ -3,11 +3,16 @@ package eu.popalexr.travel_recommendation.Models;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(
+    name = "chat_messages",
+    indexes = {
+        @Index(name = "idx_chat_messages_chat_id_id", columnList = "chat_id, id")
+    }
+)
 public class ChatMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
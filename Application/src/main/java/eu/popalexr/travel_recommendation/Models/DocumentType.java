@@ -0,0 +1,7 @@
+package eu.popalexr.travel_recommendation.Models;
+
+public enum DocumentType {
+    TICKET,
+    ACCOMMODATION,
+    OTHER
+}
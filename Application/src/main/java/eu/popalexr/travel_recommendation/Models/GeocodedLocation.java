@@ -0,0 +1,88 @@
+package eu.popalexr.travel_recommendation.Models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(
+    name = "geocoded_locations",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_geocoded_locations_query_key", columnNames = "query_key")
+    }
+)
+public class GeocodedLocation {
+
+    public static final int MAX_QUERY_KEY_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "query_key", nullable = false, length = MAX_QUERY_KEY_LENGTH)
+    private String queryKey;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    @Column(name = "display_name", length = 512)
+    private String displayName;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected GeocodedLocation() {
+        // for JPA
+    }
+
+    private GeocodedLocation(String queryKey, double latitude, double longitude, String displayName) {
+        this.queryKey = Objects.requireNonNull(queryKey, "queryKey must not be null");
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.displayName = displayName;
+    }
+
+    public static GeocodedLocation create(String queryKey, double latitude, double longitude, String displayName) {
+        return new GeocodedLocation(queryKey, latitude, longitude, displayName);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getQueryKey() {
+        return queryKey;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
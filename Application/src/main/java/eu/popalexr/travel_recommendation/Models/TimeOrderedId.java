@@ -0,0 +1,18 @@
+package eu.popalexr.travel_recommendation.Models;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the id in the application when the entity is persisted, so inserts can be batched
+ * (an IDENTITY column forces one round-trip per row). See {@link TimeOrderedIdGenerator}.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
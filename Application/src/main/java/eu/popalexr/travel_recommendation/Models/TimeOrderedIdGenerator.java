@@ -0,0 +1,114 @@
+package eu.popalexr.travel_recommendation.Models;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Member;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates 53-bit ids from the millisecond clock: 41 bits of time since 2025-01-01 (enough
+ * until 2094), a 5-bit node id and a 7-bit counter. Ids keep increasing across nodes (to clock
+ * precision), so ordering chat messages by id still follows the order they were written, and
+ * they are all above the ids the former auto-increment columns handed out. 53 bits keep them
+ * exact as JSON numbers in the browser.
+ *
+ * <p>Every node writing to the same database needs its own {@code ids.node-id} (0-31, passed
+ * to Hibernate as {@code spring.jpa.properties.ids.node-id}). Without one the node is 0,
+ * which is only safe for a single instance: startup fails when {@code ids.multi-instance} is
+ * true and logs a warning otherwise. The counter allows 128 ids per millisecond; beyond that
+ * the node borrows from the next millisecond rather than waiting.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "ids.node-id";
+    public static final String MULTI_INSTANCE_SETTING = "ids.multi-instance";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimeOrderedIdGenerator.class);
+    private static final AtomicBoolean DEFAULT_NODE_WARNED = new AtomicBoolean();
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 5;
+    static final int COUNTER_BITS = 7;
+
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+    private static long lastMillis = -1;
+    private static long counter;
+
+    private final long node;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, GeneratorCreationContext context) {
+        Map<String, Object> settings = context.getServiceRegistry()
+            .requireService(ConfigurationService.class)
+            .getSettings();
+        this.node = resolveNode(settings.get(NODE_ID_SETTING), settings.get(MULTI_INSTANCE_SETTING));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return nextId(node);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Returns the next id for the given node. Ids from one JVM are strictly increasing,
+     * whichever entity they are generated for.
+     */
+    public static synchronized long nextId(long node) {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (now > lastMillis) {
+            lastMillis = now;
+            counter = 0;
+        } else if (counter < MAX_COUNTER) {
+            // Same millisecond, or the clock moved back: keep counting from the last one.
+            counter++;
+        } else {
+            lastMillis++;
+            counter = 0;
+        }
+        return (lastMillis << (NODE_BITS + COUNTER_BITS)) | (node << COUNTER_BITS) | counter;
+    }
+
+    static long resolveNode(Object nodeSetting, Object multiInstanceSetting) {
+        if (nodeSetting != null && !nodeSetting.toString().isBlank()) {
+            return parseNode(nodeSetting);
+        }
+        if (multiInstanceSetting != null && Boolean.parseBoolean(multiInstanceSetting.toString().trim())) {
+            throw new IllegalStateException(
+                NODE_ID_SETTING + " must be set on every instance when " + MULTI_INSTANCE_SETTING + " is true"
+            );
+        }
+        if (DEFAULT_NODE_WARNED.compareAndSet(false, true)) {
+            LOG.warn(
+                "{} is not set; using node 0. Instances sharing the database without distinct node ids "
+                    + "generate colliding ids. Set ID_NODE_ID (0-{}) per instance.",
+                NODE_ID_SETTING,
+                MAX_NODE
+            );
+        }
+        return 0;
+    }
+
+    static long parseNode(Object setting) {
+        long node = setting == null || setting.toString().isBlank() ? 0 : Long.parseLong(setting.toString().trim());
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException(NODE_ID_SETTING + " must be between 0 and " + MAX_NODE + ", got " + node);
+        }
+        return node;
+    }
+}
@@ -3,8 +3,6 @@ package eu.popalexr.travel_recommendation.Models;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
@@ -22,7 +20,7 @@ import jakarta.persistence.UniqueConstraint;
 public class TripProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @OneToOne(optional = false, fetch = FetchType.LAZY)
@@ -0,0 +1,139 @@
+package eu.popalexr.travel_recommendation.Models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Analysis of an uploaded document, keyed by the uploader, the SHA-256 of the file bytes
+ * and the document type it was uploaded as.
+ */
+@Entity
+@Table(
+    name = "uploaded_documents",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_uploaded_documents_user_hash_type",
+            columnNames = {"user_id", "content_sha256", "document_type"}
+        )
+    }
+)
+public class UploadedDocument {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "content_sha256", nullable = false, length = 64)
+    private String contentSha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 32)
+    private DocumentType documentType;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Lob
+    @Column(name = "extracted_text", columnDefinition = "LONGTEXT")
+    private String extractedText;
+
+    @Lob
+    @Column(name = "analysis_html", nullable = false, columnDefinition = "LONGTEXT")
+    private String analysisHtml;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected UploadedDocument() {
+        // for JPA
+    }
+
+    private UploadedDocument(
+        Long userId,
+        String contentSha256,
+        DocumentType documentType,
+        String contentType,
+        long sizeBytes,
+        String extractedText,
+        String analysisHtml
+    ) {
+        this.userId = Objects.requireNonNull(userId, "userId must not be null");
+        this.contentSha256 = Objects.requireNonNull(contentSha256, "contentSha256 must not be null");
+        this.documentType = Objects.requireNonNull(documentType, "documentType must not be null");
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.extractedText = extractedText;
+        this.analysisHtml = Objects.requireNonNull(analysisHtml, "analysisHtml must not be null");
+    }
+
+    public static UploadedDocument create(
+        Long userId,
+        String contentSha256,
+        DocumentType documentType,
+        String contentType,
+        long sizeBytes,
+        String extractedText,
+        String analysisHtml
+    ) {
+        return new UploadedDocument(userId, contentSha256, documentType, contentType, sizeBytes, extractedText, analysisHtml);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public DocumentType getDocumentType() {
+        return documentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getExtractedText() {
+        return extractedText;
+    }
+
+    public String getAnalysisHtml() {
+        return analysisHtml;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -1,13 +1,65 @@
 package eu.popalexr.travel_recommendation.Repositories;
 
+import eu.popalexr.travel_recommendation.DTOs.ChatMessageSummary;
 import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
     List<ChatMessage> findByChatIdOrderByIdAsc(Long chatId);
 
-    void deleteByChatId(Long chatId);
+    /**
+     * Keyset page of a chat, newest first: messages with an id below {@code beforeId}.
+     */
+    List<ChatMessage> findByChatIdAndIdLessThanOrderByIdDesc(Long chatId, Long beforeId, Limit limit);
+
+    /**
+     * Same page as {@link #findByChatIdAndIdLessThanOrderByIdDesc} without loading itinerary_json.
+     */
+    @Query("select m.id as id, m.role as role, m.text as text, "
+        + "case when m.itineraryJson is null then false else true end as hasItinerary "
+        + "from ChatMessage m where m.chat.id = :chatId and m.id < :beforeId order by m.id desc")
+    List<ChatMessageSummary> findSummariesBefore(
+        @Param("chatId") Long chatId,
+        @Param("beforeId") Long beforeId,
+        Limit limit
+    );
+
+    @Query("select m.itineraryJson from ChatMessage m where m.id = :id and m.chat.id = :chatId")
+    Optional<String> findItineraryJson(@Param("chatId") Long chatId, @Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChatMessage m where m.chat.id = :chatId")
+    int deleteByChatId(@Param("chatId") Long chatId);
+
+    /**
+     * Drops the tail of a chat: every message after {@code afterId}.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ChatMessage m where m.chat.id = :chatId and m.id > :afterId")
+    int deleteByChatIdAfter(@Param("chatId") Long chatId, @Param("afterId") Long afterId);
+
+    /**
+     * Deletes at most {@code limit} messages of a chat in a transaction of its own, so purging
+     * a long chat in the background does not hold row locks for the whole chat at once.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from chat_messages where chat_id = :chatId order by id limit :limit", nativeQuery = true)
+    int deleteBatchByChatId(@Param("chatId") Long chatId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update ChatMessage m set m.itineraryJson = :itineraryJson where m.id = :id")
+    int updateItineraryJson(@Param("id") Long id, @Param("itineraryJson") String itineraryJson);
 }
@@ -1,8 +1,14 @@
 package eu.popalexr.travel_recommendation.Repositories;
 
+import eu.popalexr.travel_recommendation.DTOs.ChatTurnContext;
 import eu.popalexr.travel_recommendation.Models.Chat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +17,51 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     List<Chat> findByUserIdOrderByIdDesc(Long userId);
 
     Optional<Chat> findByIdAndUserId(Long id, Long userId);
-}
 
+    /**
+     * Checks ownership and loads the trip profile in the same query as the chat.
+     */
+    @Query("select c as chat, p as profile from Chat c left join TripProfile p on p.chat = c "
+        + "where c.id = :id and c.user.id = :userId")
+    Optional<ChatTurnContext> findTurnContext(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update Chat c set c.title = :title where c.id = :id")
+    int updateTitle(@Param("id") Long id, @Param("title") String title);
+
+    /**
+     * Stores a rolling summary unless a newer one (covering later messages) is already saved.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Chat c set c.historySummary = :summary, c.summaryThroughMessageId = :throughId "
+        + "where c.id = :id and (c.summaryThroughMessageId is null or c.summaryThroughMessageId < :throughId)")
+    int updateHistorySummary(
+        @Param("id") Long id,
+        @Param("summary") String summary,
+        @Param("throughId") Long throughMessageId
+    );
+
+    /**
+     * Hides a chat of the user from every query above; its rows are removed by
+     * {@link #deleteMarked} once its messages and profile are gone. Returns 0 when the chat
+     * does not exist, belongs to someone else or is already deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Chat c set c.deletedAt = :now where c.id = :id and c.user.id = :userId and c.deletedAt is null")
+    int markDeleted(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Ids of chats marked deleted whose rows have not been purged yet. Native, since the
+     * entity's restriction hides these chats from JPQL.
+     */
+    @Query(value = "select id from chats where deleted_at is not null order by deleted_at limit :limit", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from chats where id = :id and deleted_at is not null", nativeQuery = true)
+    int deleteMarked(@Param("id") Long id);
+}
@@ -0,0 +1,12 @@
+package eu.popalexr.travel_recommendation.Repositories;
+
+import eu.popalexr.travel_recommendation.Models.GeocodedLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GeocodedLocationRepository extends JpaRepository<GeocodedLocation, Long> {
+
+    List<GeocodedLocation> findByQueryKeyIn(Collection<String> queryKeys);
+}
@@ -2,6 +2,10 @@ package eu.popalexr.travel_recommendation.Repositories;
 
 import eu.popalexr.travel_recommendation.Models.TripProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -9,5 +13,8 @@ public interface TripProfileRepository extends JpaRepository<TripProfile, Long>
 
     Optional<TripProfile> findByChatId(Long chatId);
 
-    void deleteByChatId(Long chatId);
+    @Transactional
+    @Modifying
+    @Query("delete from TripProfile p where p.chat.id = :chatId")
+    int deleteByChatId(@Param("chatId") Long chatId);
 }
@@ -0,0 +1,27 @@
+package eu.popalexr.travel_recommendation.Repositories;
+
+import eu.popalexr.travel_recommendation.Models.DocumentType;
+import eu.popalexr.travel_recommendation.Models.UploadedDocument;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadedDocumentRepository extends JpaRepository<UploadedDocument, Long> {
+
+    Optional<UploadedDocument> findByUserIdAndContentSha256AndDocumentType(
+        Long userId,
+        String contentSha256,
+        DocumentType documentType
+    );
+
+    /**
+     * Text extracted from the same bytes when they were uploaded under any document type.
+     */
+    @Query("select d.extractedText from UploadedDocument d "
+        + "where d.userId = :userId and d.contentSha256 = :sha256 and d.extractedText is not null")
+    List<String> findExtractedText(@Param("userId") Long userId, @Param("sha256") String contentSha256, Limit limit);
+}
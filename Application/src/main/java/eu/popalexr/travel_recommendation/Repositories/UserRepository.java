@@ -5,7 +5,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
+/**
+ * Emails are stored trimmed and lower-cased (see {@link User}); pass a normalized address so
+ * the lookup is a plain equality on {@code uk_users_email}.
+ */
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmailIgnoreCase(String email);
-    boolean existsByEmailIgnoreCase(String email);
+    Optional<User> findByEmail(String email);
+    boolean existsByEmail(String email);
 }
@@ -0,0 +1,167 @@
+package eu.popalexr.travel_recommendation.Resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker for one upstream.
+ *
+ * <p>The outcomes of the last {@code windowSize} calls are kept in a ring. Once at least
+ * {@code minimumCalls} are recorded and the failure share reaches {@code failureRateThreshold},
+ * the breaker opens and calls fail fast for {@code openDuration}. It then lets
+ * {@code halfOpenCalls} trial calls through: if all succeed it closes again, any failure
+ * opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private Counter rejected;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration, int halfOpenCalls) {
+        if (windowSize <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("windowSize and halfOpenCalls must be positive");
+        }
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Registers {@code upstream.circuit.state} (0 closed, 1 open, 2 half-open),
+     * {@code upstream.circuit.transitions} per target state and {@code upstream.circuit.rejected},
+     * all tagged with the client name.
+     */
+    public void bindTo(MeterRegistry registry, String client) {
+        Gauge.builder("upstream.circuit.state", this, breaker -> breaker.state().ordinal())
+            .description("Circuit breaker state (0 closed, 1 open, 2 half-open)")
+            .tag("client", client)
+            .register(registry);
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("upstream.circuit.transitions")
+                .description("Circuit breaker state changes")
+                .tag("client", client)
+                .tag("state", target.name().toLowerCase())
+                .register(registry));
+        }
+        rejected = Counter.builder("upstream.circuit.rejected")
+            .description("Calls failed fast because the circuit was open")
+            .tag("client", client)
+            .register(registry);
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    /**
+     * Returns true when a call may go to the upstream; every permitted call must be followed
+     * by {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        State current = state();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.HALF_OPEN && halfOpenStarted < halfOpenCalls) {
+            halfOpenStarted++;
+            return true;
+        }
+        if (rejected != null) {
+            rejected.increment();
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Releases a permit whose call ended without an upstream outcome (e.g. it was interrupted).
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenStarted > 0) {
+            halfOpenStarted--;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenStarted = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                next = 0;
+                recorded = 0;
+                failures = 0;
+            }
+        }
+        Counter counter = transitions.get(target);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package eu.popalexr.travel_recommendation.Resilience;
+
+import eu.popalexr.travel_recommendation.Exceptions.UpstreamUnavailableException;
+import eu.popalexr.travel_recommendation.Http.HttpClientProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends requests to one upstream with a deadline per call, retries with exponential backoff
+ * and full jitter on connection errors, 429 and 5xx (honouring {@code Retry-After}), a
+ * {@link CircuitBreaker}, and optional hedging for calls that are safe to duplicate.
+ *
+ * <p>The deadline covers every attempt and the waits between them; for streamed bodies it
+ * ends once the response headers arrive. A single attempt is also bounded by the client
+ * profile's read timeout, so a stalled attempt is retried while the deadline allows.
+ * Responses with a status that is not retried (or the last attempt's response) are returned
+ * as is, so callers keep their own error handling.
+ */
+public class ResilientHttpExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResilientHttpExecutor.class);
+
+    public record Settings(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Duration maxRetryAfter,
+        boolean hedgingEnabled,
+        Duration hedgeDelay
+    ) {
+    }
+
+    private final String name;
+    private final HttpClient httpClient;
+    private final HttpClientProfile profile;
+    private final CircuitBreaker circuitBreaker;
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    public ResilientHttpExecutor(
+        HttpClientProfile profile,
+        CircuitBreaker circuitBreaker,
+        Settings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = profile.name();
+        this.httpClient = profile.client();
+        this.profile = profile;
+        this.circuitBreaker = circuitBreaker;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        circuitBreaker.bindTo(meterRegistry, name);
+        this.hedges = Counter.builder("upstream.hedges")
+            .description("Hedged duplicate requests sent after the hedge delay")
+            .tag("client", name)
+            .register(meterRegistry);
+        this.hedgeWins = Counter.builder("upstream.hedge.wins")
+            .description("Hedged requests that answered before the original")
+            .tag("client", name)
+            .register(meterRegistry);
+    }
+
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, Duration deadline)
+        throws IOException, InterruptedException {
+        return execute(request, handler, deadline, false);
+    }
+
+    /**
+     * Like {@link #send}, but when hedging is enabled a duplicate request is sent if the first
+     * has not answered within the hedge delay, and whichever succeeds first is used. Only for
+     * cheap calls whose duplicates do no harm.
+     */
+    public <T> HttpResponse<T> sendHedged(HttpRequest request, HttpResponse.BodyHandler<T> handler, Duration deadline)
+        throws IOException, InterruptedException {
+        return execute(request, handler, deadline, settings.hedgingEnabled());
+    }
+
+    private <T> HttpResponse<T> execute(
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> handler,
+        Duration deadline,
+        boolean hedge
+    ) throws IOException, InterruptedException {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            Duration attemptTimeout = profile.requestTimeout(remaining(deadlineNanos));
+            if (!circuitBreaker.tryAcquire()) {
+                throw new UpstreamUnavailableException("The " + name + " circuit is open.");
+            }
+
+            HttpRequest attemptRequest = HttpRequest.newBuilder(request, (header, value) -> true)
+                .timeout(attemptTimeout)
+                .build();
+            long attemptDeadlineNanos = System.nanoTime() + attemptTimeout.toNanos();
+            HttpResponse<T> response;
+            try {
+                response = hedge
+                    ? sendWithHedge(attemptRequest, handler, attemptDeadlineNanos)
+                    : await(httpClient.sendAsync(attemptRequest, handler), attemptDeadlineNanos);
+            } catch (InterruptedException | RuntimeException e) {
+                circuitBreaker.onIgnored();
+                throw e;
+            } catch (IOException e) {
+                circuitBreaker.onFailure();
+                Duration backoff = backoff(attempt, null);
+                if (!canRetry(attempt, deadlineNanos, backoff)) {
+                    throw e;
+                }
+                retried(e instanceof HttpTimeoutException ? "timeout" : "io", attempt, backoff);
+                continue;
+            }
+
+            int status = response.statusCode();
+            if (!isRetryable(status)) {
+                circuitBreaker.onSuccess();
+                return response;
+            }
+            circuitBreaker.onFailure();
+            Duration backoff = backoff(attempt, response);
+            if (!canRetry(attempt, deadlineNanos, backoff)) {
+                return response;
+            }
+            discard(response);
+            retried(String.valueOf(status), attempt, backoff);
+        }
+    }
+
+    private <T> HttpResponse<T> sendWithHedge(HttpRequest request, HttpResponse.BodyHandler<T> handler, long deadlineNanos)
+        throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<T>> primary = httpClient.sendAsync(request, handler);
+        try {
+            long hedgeAfter = Math.min(settings.hedgeDelay().toNanos(), Math.max(0, deadlineNanos - System.nanoTime()));
+            return primary.get(hedgeAfter, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Still waiting; race a duplicate below.
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            throw e;
+        }
+
+        hedges.increment();
+        CompletableFuture<HttpResponse<T>> secondary = httpClient.sendAsync(request, handler);
+        try {
+            HttpResponse<T> response = await(firstSuccessful(primary, secondary), deadlineNanos);
+            if (secondary.isDone() && !secondary.isCompletedExceptionally() && secondary.join() == response) {
+                hedgeWins.increment();
+            }
+            return response;
+        } finally {
+            primary.cancel(true);
+            secondary.cancel(true);
+        }
+    }
+
+    /**
+     * Waits for the response until the deadline. {@code HttpRequest.timeout} stops applying
+     * once headers arrive, so this also bounds reading a buffered body.
+     */
+    private <T> HttpResponse<T> await(CompletableFuture<HttpResponse<T>> response, long deadlineNanos)
+        throws IOException, InterruptedException {
+        try {
+            return response.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new HttpTimeoutException("Request to " + name + " timed out");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        first.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                second.whenComplete((other, otherError) -> completeWith(result, other, otherError));
+            }
+        });
+        second.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                first.whenComplete((other, otherError) -> completeWith(result, other, otherError));
+            }
+        });
+        return result;
+    }
+
+    private static <T> void completeWith(CompletableFuture<T> result, T value, Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) throws InterruptedException {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof CancellationException || cause instanceof InterruptedException) {
+            throw new InterruptedException("Request cancelled");
+        }
+        return new IOException(cause);
+    }
+
+    private boolean canRetry(int attempt, long deadlineNanos, Duration backoff) throws InterruptedException {
+        if (attempt >= settings.maxAttempts() || System.nanoTime() + backoff.toNanos() >= deadlineNanos) {
+            return false;
+        }
+        Thread.sleep(backoff);
+        return true;
+    }
+
+    private void retried(String reason, int attempt, Duration backoff) {
+        Counter.builder("upstream.retries")
+            .description("Requests retried after a failed attempt")
+            .tag("client", name)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        LOG.debug("Retrying {} request (attempt {} failed: {}) in {} ms", name, attempt, reason, backoff.toMillis());
+    }
+
+    /**
+     * Full-jitter exponential backoff, or the upstream's {@code Retry-After} when it asks for longer.
+     */
+    private Duration backoff(int attempt, HttpResponse<?> response) {
+        long capMillis = Math.min(
+            settings.maxBackoff().toMillis(),
+            settings.initialBackoff().toMillis() << Math.min(attempt - 1, 20)
+        );
+        long jittered = ThreadLocalRandom.current().nextLong(capMillis + 1);
+        long retryAfter = response == null ? 0 : retryAfterMillis(response).orElse(0L);
+        return Duration.ofMillis(Math.max(jittered, Math.min(retryAfter, settings.maxRetryAfter().toMillis())));
+    }
+
+    static Optional<Long> retryAfterMillis(HttpResponse<?> response) {
+        Optional<String> millis = response.headers().firstValue("retry-after-ms");
+        if (millis.isPresent()) {
+            try {
+                return Optional.of(Math.max(0, (long) Double.parseDouble(millis.get().trim())));
+            } catch (NumberFormatException ignored) {
+                // Fall back to Retry-After.
+            }
+        }
+        Optional<String> retryAfter = response.headers().firstValue("retry-after");
+        if (retryAfter.isEmpty()) {
+            return Optional.empty();
+        }
+        String value = retryAfter.get().trim();
+        try {
+            return Optional.of(Math.max(0, (long) (Double.parseDouble(value) * 1000)));
+        } catch (NumberFormatException ignored) {
+            // Not seconds; try an HTTP date.
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis()));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    private static Duration remaining(long deadlineNanos) throws HttpTimeoutException {
+        long nanos = deadlineNanos - System.nanoTime();
+        if (nanos <= 0) {
+            throw new HttpTimeoutException("Deadline exceeded");
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // Nothing left to read.
+            }
+        }
+    }
+}
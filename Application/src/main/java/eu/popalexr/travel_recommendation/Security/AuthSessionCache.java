@@ -0,0 +1,77 @@
+package eu.popalexr.travel_recommendation.Security;
+
+import eu.popalexr.travel_recommendation.Cache.TtlLruCache;
+import eu.popalexr.travel_recommendation.Models.AuthSession;
+import eu.popalexr.travel_recommendation.Repositories.AuthSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a short-lived copy of auth sessions so the JWT filter does not hit the database on every
+ * request. Entries live at most {@code jwt.session-cache.max-staleness-seconds} (and never past the
+ * session expiry), which bounds how long a revocation made on another node can go unnoticed.
+ * Revocations on this node invalidate the entry immediately.
+ */
+@Component
+public class AuthSessionCache {
+
+    private final AuthSessionRepository sessionRepository;
+    private final TtlLruCache<String, Optional<SessionSnapshot>> cache;
+    private final Timer databaseLoads;
+
+    public AuthSessionCache(
+        AuthSessionRepository sessionRepository,
+        @Value("${jwt.session-cache.max-entries:10000}") int maxEntries,
+        @Value("${jwt.session-cache.max-staleness-seconds:30}") long maxStalenessSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.cache = new TtlLruCache<>(maxEntries, Duration.ofSeconds(maxStalenessSeconds));
+        this.cache.bindTo(meterRegistry, "auth-sessions");
+        this.databaseLoads = Timer.builder("auth.sessions.load")
+            .description("Database lookups of auth sessions by the JWT filter on a cache miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the session for the given token id, loading it from the database on a cache miss.
+     * Unknown ids are cached as well so forged or deleted sessions do not cost a query each time.
+     */
+    public Optional<SessionSnapshot> find(String jti) {
+        Optional<SessionSnapshot> cached = cache.get(jti);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        Optional<SessionSnapshot> loaded = sessionRepository.findById(jti).map(SessionSnapshot::of);
+        databaseLoads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Duration ttl = loaded
+            .map(snapshot -> Duration.between(LocalDateTime.now(), snapshot.expiresAt()))
+            .orElse(null);
+        cache.put(jti, loaded, ttl);
+        return loaded;
+    }
+
+    public void invalidate(String jti) {
+        cache.invalidate(jti);
+    }
+
+    public record SessionSnapshot(Long userId, LocalDateTime expiresAt, LocalDateTime revokedAt) {
+
+        static SessionSnapshot of(AuthSession session) {
+            return new SessionSnapshot(session.getUserId(), session.getExpiresAt(), session.getRevokedAt());
+        }
+
+        public boolean isActive(LocalDateTime now) {
+            return revokedAt == null && now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.Models.Chat;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.TripProfile;
+
+import java.util.List;
+
+public interface ChatContextWindowService {
+
+    /**
+     * Trims the chat history so that the system prompt, the trip profile context and the
+     * returned messages fit the configured token budget. The most recent turns are kept
+     * verbatim; older turns are replaced by the chat's rolling summary (as a leading system
+     * message), which is refreshed in the background when it falls behind.
+     * Returns the history unchanged when it already fits.
+     */
+    List<ChatMessage> window(Chat chat, List<ChatMessage> history, TripProfile profile);
+}
@@ -0,0 +1,11 @@
+package eu.popalexr.travel_recommendation.Services;
+
+public interface ChatDeletionService {
+
+    /**
+     * Deletes a chat of the user together with its messages and trip profile. In soft-delete
+     * mode the chat is only hidden here and its rows are removed in the background.
+     * Returns false when the user has no such chat.
+     */
+    boolean delete(Long userId, Long chatId);
+}
@@ -0,0 +1,49 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.Models.Chat;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.TripProfile;
+
+import java.util.List;
+
+/**
+ * Database phases of a chat turn. Each method is a short transaction of its own; callers
+ * run the model call between {@code begin*}/{@link #load} and {@link #saveReply}, so no
+ * connection is held while waiting for OpenAI.
+ *
+ * <p>Failures to start a turn (unknown user or chat, nothing to regenerate) are thrown as
+ * {@link eu.popalexr.travel_recommendation.Exceptions.ChatTurnException}.
+ */
+public interface ChatTurnService {
+
+    /**
+     * Saves the user's message, creating the chat when {@code chatId} is null, and loads the
+     * context the model needs.
+     */
+    Turn begin(Long userId, Long chatId, String userMessageText);
+
+    /**
+     * Replaces the text of the latest user message, which must be {@code messageId}, and drops
+     * the replies that followed it.
+     */
+    Turn beginEdit(Long userId, Long chatId, Long messageId, String text);
+
+    /**
+     * Drops the replies that followed the latest user message so it can be answered again.
+     */
+    Turn beginRegeneration(Long userId, Long chatId);
+
+    /**
+     * Loads the context of an existing chat without adding a message.
+     */
+    Turn load(Long userId, Long chatId);
+
+    ChatMessage saveReply(Chat chat, String reply);
+
+    /**
+     * Everything a turn needs once its transaction has ended. {@code history} is the full
+     * history up to and including {@code userMessage} (null for {@link #load}), before windowing.
+     */
+    record Turn(Chat chat, boolean newChat, ChatMessage userMessage, TripProfile profile, List<ChatMessage> history) {
+    }
+}
@@ -0,0 +1,21 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.DocumentType;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface DocumentAnalysisService {
+
+    /**
+     * Returns the HTML analysis for an uploaded document. Identical bytes uploaded by the same
+     * user as the same document type reuse the stored analysis without calling the model;
+     * PDF text extracted for any earlier upload of the same bytes is reused as well.
+     *
+     * @throws IOException when the uploaded file cannot be read
+     */
+    String analyze(Long userId, DocumentType type, List<ChatMessage> history, DocumentContent document)
+        throws IOException;
+}
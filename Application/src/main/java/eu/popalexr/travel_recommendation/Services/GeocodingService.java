@@ -0,0 +1,19 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import java.util.List;
+import java.util.Map;
+
+public interface GeocodingService {
+
+    /**
+     * Returns true when a Mapbox access token is configured.
+     */
+    boolean isConfigured();
+
+    /**
+     * Resolves the given place names to coordinates. Each result contains
+     * {@code query}, {@code lat}, {@code lng} and {@code displayName}; places that could not be
+     * resolved before the request deadline are left out. Results keep the input order.
+     */
+    List<Map<String, Object>> geocode(List<String> queries);
+}
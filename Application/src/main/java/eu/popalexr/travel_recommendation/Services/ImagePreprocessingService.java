@@ -0,0 +1,14 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+
+public interface ImagePreprocessingService {
+
+    /**
+     * Prepares an uploaded image for the vision model. Decodable images that are too large or
+     * rotated are oriented, scaled down to the model's high-detail resolution and returned as an
+     * in-memory JPEG when that is smaller; anything else is returned unchanged so it can be
+     * streamed as is.
+     */
+    DocumentContent prepare(DocumentContent image);
+}
@@ -0,0 +1,179 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Models.Chat;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.TripProfile;
+import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
+import eu.popalexr.travel_recommendation.Services.ChatContextWindowService;
+import eu.popalexr.travel_recommendation.Services.OpenAiChatService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class ChatContextWindowServiceImpl implements ChatContextWindowService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatContextWindowServiceImpl.class);
+
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation: ";
+
+    private final OpenAiChatService chatService;
+    private final ChatRepository chatRepository;
+    private final Executor executor;
+    private final int maxTokens;
+    private final int minRecentMessages;
+    private final Set<Long> summariesInFlight = ConcurrentHashMap.newKeySet();
+
+    private final DistributionSummary fullTokens;
+    private final DistributionSummary sentTokens;
+    private final Counter trimmedRequests;
+    private final Counter summaryRefreshes;
+    private final Counter summaryFailures;
+
+    public ChatContextWindowServiceImpl(
+        OpenAiChatService chatService,
+        ChatRepository chatRepository,
+        @Qualifier("historySummaryExecutor") Executor executor,
+        MeterRegistry meterRegistry,
+        @Value("${chat.context.max-tokens:12000}") int maxTokens,
+        @Value("${chat.context.min-recent-messages:4}") int minRecentMessages
+    ) {
+        this.chatService = chatService;
+        this.chatRepository = chatRepository;
+        this.executor = executor;
+        this.maxTokens = maxTokens;
+        this.minRecentMessages = Math.max(1, minRecentMessages);
+
+        this.fullTokens = DistributionSummary.builder("chat.context.tokens")
+            .description("Estimated prompt tokens per recommendation request")
+            .baseUnit("tokens")
+            .tag("stage", "full")
+            .register(meterRegistry);
+        this.sentTokens = DistributionSummary.builder("chat.context.tokens")
+            .description("Estimated prompt tokens per recommendation request")
+            .baseUnit("tokens")
+            .tag("stage", "sent")
+            .register(meterRegistry);
+        this.trimmedRequests = Counter.builder("chat.context.trimmed")
+            .description("Requests whose history was cut down to the token budget")
+            .register(meterRegistry);
+        this.summaryRefreshes = Counter.builder("chat.context.summaries")
+            .tag("result", "success")
+            .register(meterRegistry);
+        this.summaryFailures = Counter.builder("chat.context.summaries")
+            .tag("result", "failure")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public List<ChatMessage> window(Chat chat, List<ChatMessage> history, TripProfile profile) {
+        if (history == null || history.isEmpty()) {
+            return history;
+        }
+
+        int overhead = chatService.estimatePromptOverheadTokens(profile);
+        int[] messageTokens = new int[history.size()];
+        int historyTokens = 0;
+        for (int i = 0; i < history.size(); i++) {
+            messageTokens[i] = TokenEstimator.estimate(history.get(i));
+            historyTokens += messageTokens[i];
+        }
+
+        fullTokens.record(overhead + historyTokens);
+        if (chat == null || overhead + historyTokens <= maxTokens) {
+            sentTokens.record(overhead + historyTokens);
+            return history;
+        }
+
+        String summary = chat.getHistorySummary();
+        Long summaryThroughId = chat.getSummaryThroughMessageId();
+        String summaryText = summary == null || summary.isBlank() ? null : SUMMARY_PREFIX + summary;
+        int available = maxTokens - overhead - TokenEstimator.estimateMessage(summaryText);
+
+        // Walk back from the newest message; the last few turns are always kept.
+        int keepFrom = history.size();
+        int used = 0;
+        for (int i = history.size() - 1; i >= 0; i--) {
+            boolean required = history.size() - i <= minRecentMessages;
+            if (!required && used + messageTokens[i] > available) {
+                break;
+            }
+            used += messageTokens[i];
+            keepFrom = i;
+        }
+
+        if (keepFrom == 0) {
+            sentTokens.record(overhead + historyTokens);
+            return history;
+        }
+
+        List<ChatMessage> dropped = history.subList(0, keepFrom);
+        refreshSummaryIfStale(chat.getId(), summary, summaryThroughId, dropped);
+
+        List<ChatMessage> window = new ArrayList<>(history.size() - keepFrom + 1);
+        if (summaryText != null) {
+            window.add(ChatMessage.create(chat, "system", summaryText));
+        }
+        window.addAll(history.subList(keepFrom, history.size()));
+
+        trimmedRequests.increment();
+        sentTokens.record(overhead + used + TokenEstimator.estimateMessage(summaryText));
+        return window;
+    }
+
+    /**
+     * Folds the dropped turns that the stored summary does not cover yet into a new summary.
+     * Runs off the request path, so the turns are missing from the prompt until it lands.
+     */
+    private void refreshSummaryIfStale(Long chatId, String summary, Long summaryThroughId, List<ChatMessage> dropped) {
+        Long lastDroppedId = dropped.getLast().getId();
+        if (chatId == null || lastDroppedId == null) {
+            return;
+        }
+        if (summaryThroughId != null && summaryThroughId >= lastDroppedId) {
+            return;
+        }
+        if (!summariesInFlight.add(chatId)) {
+            return;
+        }
+
+        List<ChatMessage> pending = new ArrayList<>();
+        for (ChatMessage message : dropped) {
+            if (message.getId() != null && (summaryThroughId == null || message.getId() > summaryThroughId)) {
+                pending.add(message);
+            }
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    String updated = chatService.summarizeHistory(summary, pending);
+                    if (updated != null && !updated.isBlank()) {
+                        chatRepository.updateHistorySummary(chatId, updated, lastDroppedId);
+                    }
+                    summaryRefreshes.increment();
+                } catch (Exception e) {
+                    summaryFailures.increment();
+                    LOG.warn("Could not refresh history summary for chat {}: {}", chatId, e.getMessage());
+                } finally {
+                    summariesInFlight.remove(chatId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: skip, a later turn finds the summary still stale and retries.
+            summariesInFlight.remove(chatId);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Repositories.ChatMessageRepository;
+import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
+import eu.popalexr.travel_recommendation.Repositories.TripProfileRepository;
+import eu.popalexr.travel_recommendation.Services.ChatDeletionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every deletion first marks the chat, which checks ownership in one statement. In the default
+ * mode the same transaction then removes the profile, the messages and the chat with one
+ * set-based statement each. In soft-delete mode ({@code chat.deletion.soft-delete=true}) the
+ * request returns after the mark and the rows are purged on {@code chatPurgeExecutor}, messages
+ * in batches; a periodic sweep picks up chats whose purge was interrupted.
+ */
+@Service
+public class ChatDeletionServiceImpl implements ChatDeletionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatDeletionServiceImpl.class);
+
+    private final ChatRepository chatRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final TripProfileRepository tripProfileRepository;
+    private final ScheduledExecutorService purgeExecutor;
+    private final boolean softDelete;
+    private final int purgeBatchSize;
+
+    public ChatDeletionServiceImpl(
+        ChatRepository chatRepository,
+        ChatMessageRepository chatMessageRepository,
+        TripProfileRepository tripProfileRepository,
+        @Qualifier("chatPurgeExecutor") ScheduledExecutorService purgeExecutor,
+        @Value("${chat.deletion.soft-delete:false}") boolean softDelete,
+        @Value("${chat.deletion.purge-batch-size:500}") int purgeBatchSize,
+        @Value("${chat.deletion.purge-interval-seconds:300}") long purgeIntervalSeconds
+    ) {
+        this.chatRepository = chatRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.tripProfileRepository = tripProfileRepository;
+        this.purgeExecutor = purgeExecutor;
+        this.softDelete = softDelete;
+        this.purgeBatchSize = Math.max(1, purgeBatchSize);
+        // Also runs in the default mode, for chats left marked after switching soft delete off.
+        purgeExecutor.scheduleWithFixedDelay(
+            this::purgePending,
+            purgeIntervalSeconds,
+            purgeIntervalSeconds,
+            TimeUnit.SECONDS
+        );
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(Long userId, Long chatId) {
+        if (chatRepository.markDeleted(chatId, userId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        if (softDelete) {
+            // Only after commit: a purge that ran first would find the chat not yet marked.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purgeExecutor.execute(() -> purge(chatId));
+                }
+            });
+        } else {
+            tripProfileRepository.deleteByChatId(chatId);
+            chatMessageRepository.deleteByChatId(chatId);
+            chatRepository.deleteMarked(chatId);
+        }
+        return true;
+    }
+
+    private void purgePending() {
+        try {
+            for (Long chatId : chatRepository.findDeletedIds(100)) {
+                purge(chatId);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Chat purge sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Each statement commits on its own. A reply saved while the purge runs makes the final
+     * delete fail on the foreign key; the chat then stays marked and the next sweep retries.
+     */
+    private void purge(Long chatId) {
+        try {
+            while (chatMessageRepository.deleteBatchByChatId(chatId, purgeBatchSize) == purgeBatchSize) {
+                // keep going until a partial batch shows the chat has no messages left
+            }
+            tripProfileRepository.deleteByChatId(chatId);
+            chatRepository.deleteMarked(chatId);
+        } catch (RuntimeException e) {
+            LOG.warn("Purging chat {} failed: {}", chatId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.DTOs.ChatTurnContext;
+import eu.popalexr.travel_recommendation.Exceptions.ChatTurnException;
+import eu.popalexr.travel_recommendation.Models.Chat;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Repositories.ChatMessageRepository;
+import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
+import eu.popalexr.travel_recommendation.Repositories.UserRepository;
+import eu.popalexr.travel_recommendation.Services.ChatTurnService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional
+public class ChatTurnServiceImpl implements ChatTurnService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatTurnServiceImpl.class);
+
+    private static final int MYSQL_NO_REFERENCED_ROW = 1216;
+    private static final int MYSQL_NO_REFERENCED_ROW_2 = 1452;
+
+    private final ChatRepository chatRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final UserRepository userRepository;
+
+    public ChatTurnServiceImpl(
+        ChatRepository chatRepository,
+        ChatMessageRepository chatMessageRepository,
+        UserRepository userRepository
+    ) {
+        this.chatRepository = chatRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Turn begin(Long userId, Long chatId, String userMessageText) {
+        if (chatId == null) {
+            Chat chat = Chat.create(userRepository.getReferenceById(userId), null);
+            ChatMessage userMessage = ChatMessage.create(chat, "user", userMessageText);
+            saveNewChat(chat, userMessage);
+            // A new chat has no profile and no history besides the message just saved.
+            return new Turn(chat, true, userMessage, null, List.of(userMessage));
+        }
+
+        ChatTurnContext context = findContext(userId, chatId);
+        Chat chat = context.getChat();
+        List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chat.getId());
+        ChatMessage userMessage = chatMessageRepository.save(ChatMessage.create(chat, "user", userMessageText));
+        List<ChatMessage> turnHistory = new ArrayList<>(history.size() + 1);
+        turnHistory.addAll(history);
+        turnHistory.add(userMessage);
+        return new Turn(chat, false, userMessage, context.getProfile(), turnHistory);
+    }
+
+    @Override
+    public Turn beginEdit(Long userId, Long chatId, Long messageId, String text) {
+        ChatTurnContext context = findContext(userId, chatId);
+        List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chatId);
+        int lastUserIndex = findLastUserMessageIndex(history);
+        if (lastUserIndex < 0) {
+            throw new ChatTurnException(HttpStatus.BAD_REQUEST, "No user message found to edit.");
+        }
+
+        ChatMessage lastUserMessage = history.get(lastUserIndex);
+        if (!lastUserMessage.getId().equals(messageId)) {
+            throw new ChatTurnException(HttpStatus.BAD_REQUEST, "Only the latest user message can be edited.");
+        }
+        if (isUploadMessage(lastUserMessage.getText())) {
+            throw new ChatTurnException(HttpStatus.BAD_REQUEST, "Editing uploaded documents is not supported.");
+        }
+
+        lastUserMessage.setText(text);
+        chatMessageRepository.save(lastUserMessage);
+        return truncateAfter(context, history, lastUserIndex);
+    }
+
+    @Override
+    public Turn beginRegeneration(Long userId, Long chatId) {
+        ChatTurnContext context = findContext(userId, chatId);
+        List<ChatMessage> history = chatMessageRepository.findByChatIdOrderByIdAsc(chatId);
+        int lastUserIndex = findLastUserMessageIndex(history);
+        if (lastUserIndex < 0) {
+            throw new ChatTurnException(HttpStatus.BAD_REQUEST, "No user message found to regenerate.");
+        }
+        if (isUploadMessage(history.get(lastUserIndex).getText())) {
+            throw new ChatTurnException(HttpStatus.BAD_REQUEST, "Regeneration is not available for uploaded documents.");
+        }
+        return truncateAfter(context, history, lastUserIndex);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Turn load(Long userId, Long chatId) {
+        ChatTurnContext context = findContext(userId, chatId);
+        return new Turn(
+            context.getChat(),
+            false,
+            null,
+            context.getProfile(),
+            chatMessageRepository.findByChatIdOrderByIdAsc(chatId)
+        );
+    }
+
+    @Override
+    public ChatMessage saveReply(Chat chat, String reply) {
+        return chatMessageRepository.save(ChatMessage.create(chat, "assistant", reply));
+    }
+
+    /**
+     * The user id comes from a verified session, so the chat references the user without
+     * loading it; the foreign key still rejects a user deleted in the meantime. Flushed here
+     * so that rejection is reported as such rather than failing the commit. Any other
+     * integrity failure (e.g. a duplicate id) is a server error.
+     */
+    private void saveNewChat(Chat chat, ChatMessage userMessage) {
+        try {
+            chatRepository.save(chat);
+            chatMessageRepository.saveAndFlush(userMessage);
+        } catch (DataIntegrityViolationException e) {
+            if (isMissingReference(e)) {
+                throw new ChatTurnException(HttpStatus.UNAUTHORIZED, "User not found.");
+            }
+            LOG.error("Could not save new chat for user {}: {}", chat.getUser().getId(), e.getMostSpecificCause().getMessage());
+            throw new ChatTurnException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save the message.");
+        }
+    }
+
+    /**
+     * MySQL's "cannot add or update a child row". The chat's user is the only reference these
+     * inserts can miss; the message's chat is inserted in the same flush.
+     */
+    private static boolean isMissingReference(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql
+                && (sql.getErrorCode() == MYSQL_NO_REFERENCED_ROW || sql.getErrorCode() == MYSQL_NO_REFERENCED_ROW_2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ChatTurnContext findContext(Long userId, Long chatId) {
+        return chatRepository.findTurnContext(chatId, userId)
+            .orElseThrow(() -> new ChatTurnException(HttpStatus.NOT_FOUND, "Chat not found."));
+    }
+
+    private Turn truncateAfter(ChatTurnContext context, List<ChatMessage> history, int lastUserIndex) {
+        if (lastUserIndex < history.size() - 1) {
+            chatMessageRepository.deleteByChatIdAfter(context.getChat().getId(), history.get(lastUserIndex).getId());
+        }
+        return new Turn(
+            context.getChat(),
+            false,
+            history.get(lastUserIndex),
+            context.getProfile(),
+            new ArrayList<>(history.subList(0, lastUserIndex + 1))
+        );
+    }
+
+    private int findLastUserMessageIndex(List<ChatMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            ChatMessage message = messages.get(i);
+            if (message != null && "user".equals(message.getRole())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isUploadMessage(String text) {
+        if (text == null) {
+            return false;
+        }
+        String normalized = text.trim().toLowerCase();
+        return normalized.startsWith("uploaded airplane ticket:")
+            || normalized.startsWith("uploaded accommodation invoice:")
+            || normalized.startsWith("uploaded document:");
+    }
+}
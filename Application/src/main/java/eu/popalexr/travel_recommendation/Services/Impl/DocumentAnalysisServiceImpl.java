@@ -0,0 +1,143 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+import eu.popalexr.travel_recommendation.Models.DocumentType;
+import eu.popalexr.travel_recommendation.Models.UploadedDocument;
+import eu.popalexr.travel_recommendation.Repositories.UploadedDocumentRepository;
+import eu.popalexr.travel_recommendation.Services.DocumentAnalysisService;
+import eu.popalexr.travel_recommendation.Services.OpenAiChatService;
+import eu.popalexr.travel_recommendation.Services.PdfTextExtractionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class DocumentAnalysisServiceImpl implements DocumentAnalysisService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DocumentAnalysisServiceImpl.class);
+
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+
+    private final OpenAiChatService chatService;
+    private final PdfTextExtractionService pdfTextExtractionService;
+    private final UploadedDocumentRepository uploadedDocumentRepository;
+    private final Counter analysisHits;
+    private final Counter textHits;
+    private final Counter misses;
+
+    public DocumentAnalysisServiceImpl(
+        OpenAiChatService chatService,
+        PdfTextExtractionService pdfTextExtractionService,
+        UploadedDocumentRepository uploadedDocumentRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.chatService = chatService;
+        this.pdfTextExtractionService = pdfTextExtractionService;
+        this.uploadedDocumentRepository = uploadedDocumentRepository;
+        this.analysisHits = Counter.builder("documents.dedup")
+            .description("Uploaded documents matched by content hash")
+            .tag("result", "analysis")
+            .register(meterRegistry);
+        this.textHits = Counter.builder("documents.dedup")
+            .description("Uploaded documents matched by content hash")
+            .tag("result", "text")
+            .register(meterRegistry);
+        this.misses = Counter.builder("documents.dedup")
+            .description("Uploaded documents matched by content hash")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String analyze(Long userId, DocumentType type, List<ChatMessage> history, DocumentContent document)
+        throws IOException {
+        String sha256 = sha256(document);
+
+        Optional<UploadedDocument> stored =
+            uploadedDocumentRepository.findByUserIdAndContentSha256AndDocumentType(userId, sha256, type);
+        if (stored.isPresent()) {
+            analysisHits.increment();
+            return stored.get().getAnalysisHtml();
+        }
+
+        DocumentContent content = document;
+        if (document.isPdf() && document.getExtractedText() == null) {
+            List<String> known = uploadedDocumentRepository.findExtractedText(userId, sha256, Limit.of(1));
+            if (!known.isEmpty()) {
+                textHits.increment();
+                content = document.withExtractedText(known.getFirst());
+            } else {
+                misses.increment();
+                content = pdfTextExtractionService.extract(document)
+                    .map(document::withExtractedText)
+                    .orElseGet(document::withExtractionFailed);
+            }
+        } else {
+            misses.increment();
+        }
+
+        String analysis = switch (type) {
+            case TICKET -> chatService.analyzeTicket(history, content);
+            case ACCOMMODATION -> chatService.analyzeAccommodation(history, content);
+            case OTHER -> chatService.analyzeOtherDocument(history, content);
+        };
+
+        store(userId, sha256, type, content, analysis);
+        return analysis;
+    }
+
+    private void store(Long userId, String sha256, DocumentType type, DocumentContent content, String analysis) {
+        if (analysis == null || analysis.isBlank()) {
+            return;
+        }
+        if (content.isPdf() && content.getExtractedText() == null) {
+            // The model only saw a fallback message; let the next upload retry extraction.
+            return;
+        }
+        try {
+            uploadedDocumentRepository.save(UploadedDocument.create(
+                userId,
+                sha256,
+                type,
+                content.getContentType(),
+                content.getSize(),
+                content.getExtractedText(),
+                analysis
+            ));
+        } catch (DataIntegrityViolationException ignored) {
+            // A concurrent upload of the same file stored its analysis first.
+        } catch (Exception e) {
+            LOG.warn("Failed to store document analysis: {}", e.getMessage());
+        }
+    }
+
+    private String sha256(DocumentContent document) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[HASH_BUFFER_BYTES];
+        try (InputStream in = document.openStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,274 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+import eu.popalexr.travel_recommendation.Services.ImagePreprocessingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+@Service
+public class ImageIoPreprocessingService implements ImagePreprocessingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImageIoPreprocessingService.class);
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    private static final int EXIF_HEADER_BYTES = 64 * 1024;
+
+    private final boolean enabled;
+    private final int maxLongSide;
+    private final int maxShortSide;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public ImageIoPreprocessingService(
+        @Value("${image.preprocessing.enabled:true}") boolean enabled,
+        @Value("${image.preprocessing.max-long-side:2048}") int maxLongSide,
+        @Value("${image.preprocessing.max-short-side:768}") int maxShortSide,
+        @Value("${image.preprocessing.jpeg-quality:0.85}") float jpegQuality,
+        @Value("${image.preprocessing.max-pixels:40000000}") long maxPixels
+    ) {
+        this.enabled = enabled;
+        this.maxLongSide = maxLongSide;
+        this.maxShortSide = maxShortSide;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    @Override
+    public DocumentContent prepare(DocumentContent image) {
+        if (enabled && !image.isEmpty()) {
+            try {
+                DocumentContent resized = downscale(image);
+                if (resized != null) {
+                    return resized;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Sending {} upload unchanged: {}", image.getContentType(), e.getMessage());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Decodes from the upload stream (subsampling very large images while reading), applies the
+     * EXIF orientation, fits the image within the model's high-detail resolution and re-encodes
+     * it as JPEG. Returns the upload itself when it needs neither resizing nor rotation, or when
+     * the JPEG would not be smaller (the original keeps its EXIF orientation for the model).
+     * Returns null when the format cannot be decoded here (e.g. HEIC or WebP).
+     */
+    private DocumentContent downscale(DocumentContent image) throws IOException {
+        int orientation;
+        try (InputStream header = image.openStream()) {
+            orientation = exifOrientation(header.readNBytes(EXIF_HEADER_BYTES));
+        }
+
+        try (InputStream in = image.openStream(); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    return null;
+                }
+
+                boolean swapsSides = orientation >= 5 && orientation <= 8;
+                int orientedWidth = swapsSides ? height : width;
+                int orientedHeight = swapsSides ? width : height;
+                double scale = scaleFor(orientedWidth, orientedHeight);
+                boolean rotates = orientation > 1 && orientation <= 8;
+                if (scale >= 1.0 && !rotates) {
+                    LOG.info(
+                        "Image upload {}x{} ({} bytes) sent unchanged: within size limits and upright",
+                        width, height, image.getSize()
+                    );
+                    return image;
+                }
+
+                // Reading every n-th pixel keeps the decoded image at about twice the target size.
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, (int) Math.floor(1 / (scale * 2)));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                BufferedImage oriented = orient(decoded, orientation);
+                int targetWidth = Math.max(1, (int) Math.round(orientedWidth * scale));
+                int targetHeight = Math.max(1, (int) Math.round(orientedHeight * scale));
+                BufferedImage resized = resize(oriented, targetWidth, targetHeight);
+
+                ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+                writeJpeg(resized, jpeg);
+                if (jpeg.size() >= image.getSize()) {
+                    LOG.info(
+                        "Image upload {}x{} ({} bytes) sent unchanged: {}x{} JPEG would be {} bytes",
+                        width, height, image.getSize(), targetWidth, targetHeight, jpeg.size()
+                    );
+                    return image;
+                }
+                LOG.info(
+                    "Image upload {}x{} ({} bytes) sent as {}x{} JPEG ({} bytes)",
+                    width, height, image.getSize(), targetWidth, targetHeight, jpeg.size()
+                );
+                return new DocumentContent(image.getFileName(), "image/jpeg", new ByteArrayResource(jpeg.toByteArray()), jpeg.size());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private double scaleFor(int width, int height) {
+        int longSide = Math.max(width, height);
+        int shortSide = Math.min(width, height);
+        return Math.min(1.0, Math.min((double) maxLongSide / longSide, (double) maxShortSide / shortSide));
+    }
+
+    private BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(w, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(w, h); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, h); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(Math.PI / 2); transform.scale(1, -1); }
+            case 6 -> { transform.translate(h, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.translate(h, 0); transform.rotate(Math.PI / 2); transform.translate(w, 0); transform.scale(-1, 1); }
+            case 8 -> { transform.translate(0, w); transform.rotate(-Math.PI / 2); }
+            default -> { }
+        }
+        boolean swapsSides = orientation >= 5;
+        BufferedImage target = new BufferedImage(swapsSides ? h : w, swapsSides ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Halves the image until it is within 2x of the target, then does one bilinear pass.
+     * Also flattens transparency onto white, since JPEG has no alpha channel.
+     */
+    private BufferedImage resize(BufferedImage image, int targetWidth, int targetHeight) {
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2 >= targetWidth ? width / 2 : targetWidth);
+            height = Math.max(targetHeight, height / 2 >= targetHeight ? height / 2 : targetHeight);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Reads the orientation tag from the EXIF block at the start of a JPEG; 1 (as stored) when absent.
+     */
+    static int exifOrientation(byte[] bytes) {
+        if (bytes.length < 4 || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int offset = 2;
+        while (offset + 4 <= bytes.length && (bytes[offset] & 0xFF) == 0xFF) {
+            int marker = bytes[offset + 1] & 0xFF;
+            int length = ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+            if (marker == 0xDA || length < 2) {
+                return 1;
+            }
+            int segment = offset + 4;
+            if (marker == 0xE1 && segment + 14 <= bytes.length
+                && bytes[segment] == 'E' && bytes[segment + 1] == 'x' && bytes[segment + 2] == 'i' && bytes[segment + 3] == 'f') {
+                return readOrientation(bytes, segment + 6, Math.min(bytes.length, offset + 2 + length));
+            }
+            offset += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int readOrientation(byte[] bytes, int tiff, int end) {
+        boolean littleEndian = bytes[tiff] == 'I';
+        int ifd = tiff + readInt(bytes, tiff + 4, littleEndian);
+        if (ifd < tiff || ifd + 2 > end) {
+            return 1;
+        }
+        int entries = readShort(bytes, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readShort(bytes, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+                int value = readShort(bytes, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] bytes, int offset, boolean littleEndian) {
+        int a = bytes[offset] & 0xFF;
+        int b = bytes[offset + 1] & 0xFF;
+        return littleEndian ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] bytes, int offset, boolean littleEndian) {
+        int high = readShort(bytes, offset + (littleEndian ? 2 : 0), littleEndian);
+        int low = readShort(bytes, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,154 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Services.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps buckets and slot counts in this JVM, split over lock stripes by key so users do not
+ * contend with each other. Entries that are back to a full bucket and hold no slots carry no
+ * information and are dropped by a sweep every few thousand operations on a stripe.
+ */
+@Service
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int STRIPES = 64;
+    private static final int SWEEP_INTERVAL = 4096;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public InMemoryRateLimitStore(@Value("${rate-limit.store:memory}") String store) {
+        if (!"memory".equals(store)) {
+            throw new IllegalStateException(
+                "Unsupported rate-limit.store '" + store + "'; the only supported value is 'memory'"
+            );
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Duration tryConsume(String key, int capacity, double refillPerSecond) {
+        Stripe stripe = stripeFor(key);
+        long now = System.nanoTime();
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entry(key, now);
+            entry.refill(now, capacity, refillPerSecond);
+            if (entry.tokens >= 1) {
+                entry.tokens -= 1;
+                return Duration.ZERO;
+            }
+            if (refillPerSecond <= 0) {
+                return Duration.ofDays(1);
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - entry.tokens) / refillPerSecond * 1_000_000_000L));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public Lease tryAcquire(String key, int maxConcurrent) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entry(key, System.nanoTime());
+            if (entry.inUse >= maxConcurrent) {
+                return null;
+            }
+            entry.inUse++;
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                stripe.release(key);
+            }
+        };
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private int operations;
+
+        /**
+         * Returns the entry for the key, creating it with a full bucket. Called with the lock held.
+         */
+        Entry entry(String key, long now) {
+            if (++operations >= SWEEP_INTERVAL) {
+                operations = 0;
+                sweep(now);
+            }
+            return entries.computeIfAbsent(key, k -> new Entry(now));
+        }
+
+        void release(String key) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry != null && entry.inUse > 0) {
+                    entry.inUse--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sweep(long now) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.inUse == 0 && entry.isFullAt(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private double tokens = Double.NaN;
+        private long updatedAt;
+        private int capacity;
+        private double refillPerSecond;
+        private int inUse;
+
+        Entry(long now) {
+            this.updatedAt = now;
+        }
+
+        void refill(long now, int capacity, double refillPerSecond) {
+            if (Double.isNaN(tokens)) {
+                tokens = capacity;
+            } else {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) / 1_000_000_000.0 * refillPerSecond);
+            }
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.updatedAt = now;
+        }
+
+        boolean isFullAt(long now) {
+            return Double.isNaN(tokens)
+                || tokens + (now - updatedAt) / 1_000_000_000.0 * refillPerSecond >= capacity;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Cache.TtlLruCache;
+import eu.popalexr.travel_recommendation.Services.RecommendationCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Service
+public class InMemoryRecommendationCache implements RecommendationCache {
+
+    private final boolean enabled;
+    private final TtlLruCache<String, String> cache;
+
+    public InMemoryRecommendationCache(
+        @Value("${openai.cache.enabled:true}") boolean enabled,
+        @Value("${openai.cache.max-entries:500}") int maxEntries,
+        @Value("${openai.cache.ttl-seconds:3600}") long ttlSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.cache = new TtlLruCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+        this.cache.bindTo(meterRegistry, "recommendations");
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(key));
+    }
+
+    @Override
+    public void put(String key, String reply) {
+        if (!enabled || reply == null || reply.isBlank()) {
+            return;
+        }
+        cache.put(key, reply);
+    }
+}
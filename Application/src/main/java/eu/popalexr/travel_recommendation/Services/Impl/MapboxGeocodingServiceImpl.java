@@ -0,0 +1,282 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.popalexr.travel_recommendation.Cache.TtlLruCache;
+import eu.popalexr.travel_recommendation.Http.HttpClientProfile;
+import eu.popalexr.travel_recommendation.Models.GeocodedLocation;
+import eu.popalexr.travel_recommendation.Repositories.GeocodedLocationRepository;
+import eu.popalexr.travel_recommendation.Services.GeocodingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+@Service
+public class MapboxGeocodingServiceImpl implements GeocodingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MapboxGeocodingServiceImpl.class);
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private final ObjectMapper objectMapper;
+    private final HttpClientProfile mapboxHttp;
+    private final GeocodedLocationRepository geocodedLocationRepository;
+    private final String mapboxToken;
+    private final String geocodingUrl;
+    private final Duration deadline;
+    private final TtlLruCache<String, Place> memoryCache;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter mapboxLookups;
+    private final MeterRegistry meterRegistry;
+
+    public MapboxGeocodingServiceImpl(
+        ObjectMapper objectMapper,
+        @Qualifier("mapboxHttpClient") HttpClientProfile mapboxHttp,
+        GeocodedLocationRepository geocodedLocationRepository,
+        @Value("${mapbox.api-key:}") String mapboxToken,
+        @Value("${mapbox.geocoding.base-url:https://api.mapbox.com/geocoding/v5/mapbox.places}") String geocodingUrl,
+        @Value("${mapbox.geocoding.deadline-ms:2500}") long deadlineMillis,
+        @Value("${mapbox.geocoding.cache.max-entries:5000}") int cacheMaxEntries,
+        @Value("${mapbox.geocoding.cache.ttl-seconds:86400}") long cacheTtlSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.mapboxHttp = mapboxHttp;
+        this.geocodedLocationRepository = geocodedLocationRepository;
+        this.mapboxToken = mapboxToken;
+        this.geocodingUrl = geocodingUrl.endsWith("/") ? geocodingUrl : geocodingUrl + "/";
+        this.deadline = Duration.ofMillis(deadlineMillis);
+        this.memoryCache = new TtlLruCache<>(cacheMaxEntries, Duration.ofSeconds(cacheTtlSeconds));
+        this.memoryCache.bindTo(meterRegistry, "geocoding");
+        this.memoryHits = Counter.builder("geocoding.lookups")
+            .tag("source", "memory")
+            .register(meterRegistry);
+        this.databaseHits = Counter.builder("geocoding.lookups")
+            .tag("source", "database")
+            .register(meterRegistry);
+        this.mapboxLookups = Counter.builder("geocoding.lookups")
+            .tag("source", "mapbox")
+            .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return mapboxToken != null && !mapboxToken.isBlank();
+    }
+
+    @Override
+    public List<Map<String, Object>> geocode(List<String> queries) {
+        if (queries == null || queries.isEmpty()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        try {
+            return resolve(queries);
+        } finally {
+            Timer.builder("geocoding.requests")
+                .description("Time to resolve the places of one geocoding request, all tiers included")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Map<String, Object>> resolve(List<String> queries) {
+        // Tier 1: in-memory cache. Remember the first spelling of each key for the Mapbox call.
+        Map<String, Place> resolved = new HashMap<>();
+        Map<String, String> misses = new LinkedHashMap<>();
+        for (String query : queries) {
+            String key = queryKey(query);
+            if (resolved.containsKey(key) || misses.containsKey(key)) {
+                continue;
+            }
+            Place cached = memoryCache.get(key);
+            if (cached != null) {
+                resolved.put(key, cached);
+                memoryHits.increment();
+            } else {
+                misses.put(key, query);
+            }
+        }
+
+        // Tier 2: persisted lookups, fetched in a single query.
+        if (!misses.isEmpty()) {
+            loadFromDatabase(misses, resolved);
+        }
+
+        // Remaining places: concurrent Mapbox calls bounded by the request deadline.
+        if (!misses.isEmpty()) {
+            fetchFromMapbox(misses, resolved);
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String query : queries) {
+            Place place = resolved.get(queryKey(query));
+            if (place != null) {
+                results.add(Map.of(
+                    "query", query,
+                    "lat", place.lat(),
+                    "lng", place.lng(),
+                    "displayName", place.displayName()
+                ));
+            }
+        }
+        return results;
+    }
+
+    private void loadFromDatabase(Map<String, String> misses, Map<String, Place> resolved) {
+        List<String> keys = misses.keySet().stream()
+            .filter(key -> key.length() <= GeocodedLocation.MAX_QUERY_KEY_LENGTH)
+            .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            for (GeocodedLocation location : geocodedLocationRepository.findByQueryKeyIn(keys)) {
+                if (!misses.containsKey(location.getQueryKey())) {
+                    // Only exact keys count; a looser column collation must not alias places.
+                    continue;
+                }
+                Place place = new Place(location.getLatitude(), location.getLongitude(), location.getDisplayName());
+                resolved.put(location.getQueryKey(), place);
+                memoryCache.put(location.getQueryKey(), place);
+                misses.remove(location.getQueryKey());
+                databaseHits.increment();
+            }
+        } catch (Exception e) {
+            LOG.warn("Geocoding cache lookup failed: {}", e.getMessage());
+        }
+    }
+
+    private void fetchFromMapbox(Map<String, String> misses, Map<String, Place> resolved) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        Map<String, Lookup> inFlight = new LinkedHashMap<>();
+        misses.forEach((key, query) -> inFlight.put(key, requestPlace(query)));
+        mapboxLookups.increment(inFlight.size());
+
+        inFlight.forEach((key, lookup) -> {
+            Place place = null;
+            try {
+                long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+                place = lookup.place().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Cancelling a dependent stage would leave the request running; the client only
+                // aborts the exchange when the future returned by sendAsync is cancelled.
+                lookup.exchange().cancel(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Skip failed lookups to keep the response usable.
+            }
+            if (place != null) {
+                resolved.put(key, place);
+                memoryCache.put(key, place);
+                persist(key, place);
+            }
+        });
+    }
+
+    private Lookup requestPlace(String query) {
+        String url = geocodingUrl
+            + URLEncoder.encode(query, StandardCharsets.UTF_8)
+            + ".json?limit=1&access_token=" + URLEncoder.encode(mapboxToken, StandardCharsets.UTF_8);
+
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .header("Accept", "application/json")
+            .timeout(mapboxHttp.requestTimeout(deadline))
+            .GET()
+            .build();
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange =
+            mapboxHttp.client().sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        CompletableFuture<Place> place = exchange
+            .whenComplete((response, error) -> Timer.builder("geocoding.mapbox")
+                .description("Mapbox geocoding API calls")
+                .tag("outcome", error != null ? "error" : response.statusCode() >= 400 ? String.valueOf(response.statusCode()) : "success")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+            .thenApply(response -> response.statusCode() >= 400 ? null : parsePlace(response.body(), query));
+        return new Lookup(exchange, place);
+    }
+
+    private record Lookup(CompletableFuture<HttpResponse<String>> exchange, CompletableFuture<Place> place) {
+    }
+
+    Place parsePlace(String body, String query) {
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            JsonNode features = root.path("features");
+            if (!features.isArray() || features.isEmpty()) {
+                return null;
+            }
+
+            JsonNode first = features.get(0);
+            if (first == null) {
+                return null;
+            }
+
+            JsonNode center = first.path("center");
+            if (!center.isArray() || center.size() < 2) {
+                return null;
+            }
+            double lng = center.get(0).asDouble(Double.NaN);
+            double lat = center.get(1).asDouble(Double.NaN);
+            if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                return null;
+            }
+
+            return new Place(lat, lng, first.path("place_name").asText(query));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void persist(String key, Place place) {
+        if (key.length() > GeocodedLocation.MAX_QUERY_KEY_LENGTH) {
+            return;
+        }
+        try {
+            geocodedLocationRepository.save(GeocodedLocation.create(key, place.lat(), place.lng(), place.displayName()));
+        } catch (DataIntegrityViolationException ignored) {
+            // Another request stored the same place first.
+        } catch (Exception e) {
+            LOG.warn("Failed to persist geocoding result: {}", e.getMessage());
+        }
+    }
+
+    private String queryKey(String query) {
+        return WHITESPACE_PATTERN.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    record Place(double lat, double lng, String displayName) {
+    }
+}
@@ -4,76 +4,162 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
 import eu.popalexr.travel_recommendation.Models.ChatMessage;
 import eu.popalexr.travel_recommendation.Models.TripProfile;
+import eu.popalexr.travel_recommendation.Resilience.ResilientHttpExecutor;
+import eu.popalexr.travel_recommendation.Services.ImagePreprocessingService;
 import eu.popalexr.travel_recommendation.Services.OpenAiChatService;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import eu.popalexr.travel_recommendation.Services.PdfTextExtractionService;
+import eu.popalexr.travel_recommendation.Services.RecommendationCache;
+import eu.popalexr.travel_recommendation.Streaming.Base64JsonValue;
+import eu.popalexr.travel_recommendation.Streaming.JsonBodyPublisher;
+import eu.popalexr.travel_recommendation.Streaming.OpenAiStreamDecoder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 public class OpenAiChatServiceImpl implements OpenAiChatService {
 
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private static final int REPLAY_CHUNK_SIZE = 48;
+
+    private static final int SUMMARY_MAX_CHARS = 4000;
+
+    private static final int SUMMARY_INPUT_MESSAGE_MAX_CHARS = 4000;
+
+    private static final String RECOMMENDATION_SYSTEM_PROMPT =
+        "You are a helpful travel recommendation assistant. "
+            + "Provide useful and accurate travel advice based on the user's inputs and preferences. "
+            + "Always use the web_search tool to validate all locations and factual travel details before responding. "
+            + "Take in consideration the ticket, the accomodation, and other documents the user added. "
+            + "If no relevant information is available, ask the user for more details. "
+            + "Provide a structured itinerary section with day-by-day bullet points when possible, "
+            + "and summarize constraints or missing info explicitly (use 'not provided' if needed). "
+            + "Include a section titled <h2>Recommended locations</h2> with a bullet list of specific places "
+            + "(include hotel/accommodation if provided). Each bullet should include a place name "
+            + "plus city/country or address. If no locations are available, include a single bullet "
+            + "with 'not provided'. "
+            + "If not mentioned otherwise, sort the recommended locations by time and create a visiting schedule. "
+            + "Answer concisely and structure your reply using HTML only (no Markdown). "
+            + "Use semantic HTML elements like <p>, <ul>, <ol>, <li>, <h2>, and <strong> where appropriate. "
+            + "Return only an HTML snippet without enclosing <html> or <body> tags.";
+
     private final String apiKey;
     private final String model;
+    private final String baseUrl;
     private final ObjectMapper objectMapper;
-    private final HttpClient httpClient;
+    private final ResilientHttpExecutor openAiHttp;
+    private final Duration interactiveDeadline;
+    private final Duration streamHeadersDeadline;
+    private final Duration backgroundDeadline;
+    private final RecommendationCache recommendationCache;
+    private final PdfTextExtractionService pdfTextExtractionService;
+    private final ImagePreprocessingService imagePreprocessingService;
+    private final MeterRegistry meterRegistry;
 
     public OpenAiChatServiceImpl(
         @Value("${openai.api-key:}") String apiKey,
         @Value("${openai.model:gpt-4o-mini}") String model,
+        @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
         ObjectMapper objectMapper,
-        HttpClient httpClient
+        ResilientHttpExecutor openAiHttpExecutor,
+        RecommendationCache recommendationCache,
+        PdfTextExtractionService pdfTextExtractionService,
+        ImagePreprocessingService imagePreprocessingService,
+        @Value("${openai.deadline.interactive-ms:120000}") long interactiveDeadlineMillis,
+        @Value("${openai.deadline.stream-headers-ms:30000}") long streamHeadersDeadlineMillis,
+        @Value("${openai.deadline.background-ms:45000}") long backgroundDeadlineMillis,
+        MeterRegistry meterRegistry
     ) {
         this.apiKey = apiKey;
         this.model = model;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.objectMapper = objectMapper;
-        this.httpClient = httpClient;
+        this.openAiHttp = openAiHttpExecutor;
+        this.recommendationCache = recommendationCache;
+        this.pdfTextExtractionService = pdfTextExtractionService;
+        this.imagePreprocessingService = imagePreprocessingService;
+        this.interactiveDeadline = Duration.ofMillis(interactiveDeadlineMillis);
+        this.streamHeadersDeadline = Duration.ofMillis(streamHeadersDeadlineMillis);
+        this.backgroundDeadline = Duration.ofMillis(backgroundDeadlineMillis);
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
-    public String chat(List<ChatMessage> messages, TripProfile profile) {
+    public String chat(List<ChatMessage> messages, TripProfile profile, boolean bypassCache) {
         requireApiKey();
 
+        String cacheKey = bypassCache ? null : cacheKey(messages, profile);
+        Optional<String> cached = cacheKey == null ? Optional.empty() : recommendationCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         try {
             ObjectNode root = baseChatRequest(profile);
             ArrayNode apiMessages = (ArrayNode) root.get("messages");
 
             appendHistory(apiMessages, messages);
 
-            JsonNode contentNode = executeChat(root);
+            JsonNode contentNode = executeChat(root, CallKind.INTERACTIVE, "chat");
             if (contentNode == null || contentNode.isNull()) {
                 return "The recommendation engine did not return any content.";
             }
 
-            return contentNode.asText();
+            String reply = contentNode.asText();
+            if (cacheKey != null) {
+                recommendationCache.put(cacheKey, reply);
+            }
+            return reply;
         } catch (Exception e) {
             throw new RuntimeException("Failed to call OpenAI API", e);
         }
     }
 
     @Override
-    public String streamChat(List<ChatMessage> messages, TripProfile profile, Consumer<String> onDelta) {
+    public String streamChat(
+        List<ChatMessage> messages,
+        TripProfile profile,
+        Consumer<String> onDelta,
+        boolean bypassCache
+    ) {
         requireApiKey();
 
         if (onDelta == null) {
-            return chat(messages, profile);
+            return chat(messages, profile, bypassCache);
+        }
+
+        String cacheKey = bypassCache ? null : cacheKey(messages, profile);
+        Optional<String> cached = cacheKey == null ? Optional.empty() : recommendationCache.get(cacheKey);
+        if (cached.isPresent()) {
+            replay(cached.get(), onDelta);
+            return cached.get();
         }
 
+        long start = System.nanoTime();
+        boolean responsesApi = false;
+        String outcome = "error";
         try {
             ObjectNode root = baseChatRequest(profile);
             ArrayNode apiMessages = (ArrayNode) root.get("messages");
@@ -82,12 +168,15 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
             root.put("stream", true);
 
             boolean useResponsesApi = hasWebSearchTool(root);
+            responsesApi = useResponsesApi;
             ObjectNode requestPayload = useResponsesApi ? buildResponsesRequest(root) : root;
             requestPayload.put("stream", true);
+            if (!useResponsesApi) {
+                // Adds a final chunk with token usage; the Responses API always reports it.
+                requestPayload.putObject("stream_options").put("include_usage", true);
+            }
 
-            String endpoint = useResponsesApi
-                ? "https://api.openai.com/v1/responses"
-                : "https://api.openai.com/v1/chat/completions";
+            String endpoint = endpoint(useResponsesApi);
 
             HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(endpoint))
@@ -98,9 +187,10 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
 
             HttpRequest httpRequest = requestBuilder.build();
 
-            HttpResponse<InputStream> response = httpClient.send(
+            HttpResponse<InputStream> response = openAiHttp.send(
                 httpRequest,
-                HttpResponse.BodyHandlers.ofInputStream()
+                HttpResponse.BodyHandlers.ofInputStream(),
+                streamHeadersDeadline
             );
 
             if (response.statusCode() >= 400) {
@@ -111,83 +201,42 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
                 }
             }
 
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
-                String line;
+            try (InputStream body = response.body()) {
                 StringBuilder fullReply = new StringBuilder();
-
-                while ((line = reader.readLine()) != null) {
-                    String trimmed = line.trim();
-                    if (trimmed.isEmpty()) {
-                        continue;
-                    }
-                    if (trimmed.startsWith("event:")) {
-                        // Ignore SSE event name lines; we only parse data payloads.
-                        continue;
-                    }
-                    if ("data: [DONE]".equals(trimmed)) {
-                        break;
-                    }
-                    if (trimmed.startsWith("data:")) {
-                        trimmed = trimmed.substring(5).trim();
-                    }
-                    if (!trimmed.startsWith("{") && !trimmed.startsWith("[")) {
-                        // Skip non-JSON payloads.
-                        continue;
-                    }
-                    if (trimmed.isEmpty()) {
-                        continue;
-                    }
-
-                    if (useResponsesApi) {
-                        JsonNode node = objectMapper.readTree(trimmed);
-                        String type = node.path("type").asText();
-                        if ("response.error".equals(type)) {
-                            String message = node.path("error").path("message").asText("Failed to stream recommendation.");
-                            throw new RuntimeException(message);
-                        }
-                        if ("response.output_text.delta".equals(type)) {
-                            String delta = node.path("delta").asText("");
-                            if (delta != null && !delta.isBlank()) {
-                                onDelta.accept(delta);
-                                fullReply.append(delta);
-                            }
-                        }
-                        continue;
-                    }
-
-                    JsonNode rootNode = objectMapper.readTree(trimmed);
-                    JsonNode deltaNode = rootNode.path("choices").path(0).path("delta").path("content");
-                    if (deltaNode == null || deltaNode.isMissingNode()) {
-                        continue;
-                    }
-
-                    if (deltaNode.isArray()) {
-                        for (JsonNode item : deltaNode) {
-                            if (item != null && item.isTextual()) {
-                                String delta = item.asText();
-                                if (delta != null && !delta.isBlank()) {
-                                    onDelta.accept(delta);
-                                    fullReply.append(delta);
-                                }
-                            }
-                        }
-                    } else if (deltaNode.isTextual()) {
-                        String delta = deltaNode.asText();
-                        if (delta != null && !delta.isBlank()) {
-                            onDelta.accept(delta);
-                            fullReply.append(delta);
-                        }
+                OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(
+                    objectMapper.getFactory(),
+                    useResponsesApi ? OpenAiStreamDecoder.Format.RESPONSES : OpenAiStreamDecoder.Format.CHAT_COMPLETIONS
+                );
+                long[] firstDeltaNanos = {0};
+                long[] deltaCount = {0};
+                decoder.decode(body, delta -> {
+                    if (deltaCount[0]++ == 0) {
+                        firstDeltaNanos[0] = System.nanoTime();
+                        recordFirstToken(useResponsesApi, firstDeltaNanos[0] - start);
                     }
+                    onDelta.accept(delta);
+                    fullReply.append(delta);
+                });
+                outcome = "success";
+                if (deltaCount[0] > 0) {
+                    long outputTokens = decoder.outputTokens() > 0 ? decoder.outputTokens() : deltaCount[0];
+                    recordGenerationRate(useResponsesApi, outputTokens, System.nanoTime() - firstDeltaNanos[0]);
                 }
 
                 if (fullReply.length() == 0) {
                     return "The recommendation engine did not return any content.";
                 }
 
-                return fullReply.toString();
+                String reply = fullReply.toString();
+                if (cacheKey != null) {
+                    recommendationCache.put(cacheKey, reply);
+                }
+                return reply;
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to stream from OpenAI API", e);
+        } finally {
+            recordRequest("stream", responsesApi, outcome, start);
         }
     }
 
@@ -216,7 +265,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
             }
             userMessage.put("content", sb.toString());
 
-            JsonNode contentNode = executeChat(root);
+            JsonNode contentNode = executeChat(root, CallKind.BACKGROUND, "title");
             if (contentNode == null || contentNode.isNull()) {
                 return "New travel chat";
             }
@@ -235,11 +284,73 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
     }
 
     @Override
-    public String analyzeTicket(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType) {
+    public String summarizeHistory(String previousSummary, List<ChatMessage> messages) {
+        requireApiKey();
+
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("model", model);
+
+            ArrayNode apiMessages = root.putArray("messages");
+
+            ObjectNode systemMessage = apiMessages.addObject();
+            systemMessage.put("role", "system");
+            systemMessage.put("content",
+                "You maintain a running summary of a travel planning conversation. "
+                    + "Merge the existing summary with the new messages into one updated summary. "
+                    + "Keep destinations, dates, travelers, budget, preferences, bookings (tickets, accommodation), "
+                    + "decisions already made and open questions. Drop greetings and repeated details. "
+                    + "Respond with plain text only, at most 250 words.");
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("Existing summary: ")
+                .append(previousSummary == null || previousSummary.isBlank() ? "none" : previousSummary)
+                .append("\n\nNew messages:\n");
+            if (messages != null) {
+                for (ChatMessage message : messages) {
+                    if (message == null || message.getText() == null) {
+                        continue;
+                    }
+                    String text = message.getText();
+                    if (text.length() > SUMMARY_INPUT_MESSAGE_MAX_CHARS) {
+                        text = text.substring(0, SUMMARY_INPUT_MESSAGE_MAX_CHARS);
+                    }
+                    sb.append(message.getRole()).append(": ").append(text).append("\n");
+                }
+            }
+
+            ObjectNode userMessage = apiMessages.addObject();
+            userMessage.put("role", "user");
+            userMessage.put("content", sb.toString());
+
+            JsonNode contentNode = executeChat(root, CallKind.BACKGROUND, "summary");
+            if (contentNode == null || contentNode.isNull()) {
+                return previousSummary;
+            }
+
+            String summary = contentNode.asText().trim();
+            if (summary.isEmpty()) {
+                return previousSummary;
+            }
+            return summary.length() > SUMMARY_MAX_CHARS ? summary.substring(0, SUMMARY_MAX_CHARS) : summary;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to summarize chat history with OpenAI API", e);
+        }
+    }
+
+    @Override
+    public int estimatePromptOverheadTokens(TripProfile profile) {
+        return TokenEstimator.estimateMessage(RECOMMENDATION_SYSTEM_PROMPT)
+            + TokenEstimator.estimateMessage(buildProfileContext(profile));
+    }
+
+    @Override
+    public String analyzeTicket(List<ChatMessage> messages, DocumentContent document) {
         requireApiKey();
 
         try {
             return analyzeDocument(
+                "ticket",
                 "You are a travel assistant that reads airline tickets, boarding passes, and flight confirmations. "
                     + "Extract structured details: passenger name, airline, booking reference, flight number(s), "
                     + "departure and arrival airport names and IATA codes, terminals/gates, dates, times, seat, baggage, "
@@ -249,8 +360,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
                 messages,
                 "Please analyze this uploaded airplane ticket/boarding pass and summarize the travel details and constraints in HTML.",
                 "Ticket PDF text (truncated):\n",
-                contentType,
-                fileBytes
+                document
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to analyze ticket with OpenAI API", e);
@@ -258,11 +368,12 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
     }
 
     @Override
-    public String analyzeAccommodation(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType) {
+    public String analyzeAccommodation(List<ChatMessage> messages, DocumentContent document) {
         requireApiKey();
 
         try {
             return analyzeDocument(
+                "accommodation",
                 "You are a travel assistant that reads accommodation invoices and booking confirmations. "
                     + "Extract structured details: guest name, property name, address, booking/confirmation number, "
                     + "check-in and check-out dates/times, number of guests, room type, nightly rate and currency, "
@@ -274,15 +385,14 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
                 messages,
                 "Please analyze this uploaded accommodation invoice/booking confirmation and summarize the stay details and constraints in HTML.",
                 "Accommodation PDF text (truncated):\n",
-                contentType,
-                fileBytes
+                document
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to analyze accommodation invoice with OpenAI API", e);
         }
     }
 
-    private ObjectNode baseChatRequest(TripProfile profile) {
+    ObjectNode baseChatRequest(TripProfile profile) {
         ObjectNode root = objectMapper.createObjectNode();
         root.put("model", model);
         ArrayNode tools = root.putArray("tools");
@@ -293,24 +403,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
 
         ObjectNode systemMessage = messages.addObject();
         systemMessage.put("role", "system");
-        systemMessage.put(
-            "content",
-            "You are a helpful travel recommendation assistant. "
-                + "Provide useful and accurate travel advice based on the user's inputs and preferences. "
-                + "Always use the web_search tool to validate all locations and factual travel details before responding. "
-                + "Take in consideration the ticket, the accomodation, and other documents the user added. "
-                + "If no relevant information is available, ask the user for more details. "
-                + "Provide a structured itinerary section with day-by-day bullet points when possible, "
-                + "and summarize constraints or missing info explicitly (use 'not provided' if needed). "
-                + "Include a section titled <h2>Recommended locations</h2> with a bullet list of specific places "
-                + "(include hotel/accommodation if provided). Each bullet should include a place name "
-                + "plus city/country or address. If no locations are available, include a single bullet "
-                + "with 'not provided'. "
-                + "If not mentioned otherwise, sort the recommended locations by time and create a visiting schedule. "
-                + "Answer concisely and structure your reply using HTML only (no Markdown). "
-                + "Use semantic HTML elements like <p>, <ul>, <ol>, <li>, <h2>, and <strong> where appropriate. "
-                + "Return only an HTML snippet without enclosing <html> or <body> tags."
-        );
+        systemMessage.put("content", RECOMMENDATION_SYSTEM_PROMPT);
 
         String profileContext = buildProfileContext(profile);
         if (profileContext != null) {
@@ -322,7 +415,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return root;
     }
 
-    private void appendHistory(ArrayNode apiMessages, List<ChatMessage> messages) {
+    void appendHistory(ArrayNode apiMessages, List<ChatMessage> messages) {
         if (messages == null) {
             return;
         }
@@ -336,6 +429,57 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         }
     }
 
+    /**
+     * Fingerprint of everything that shapes the reply: model, trip profile context and the
+     * whitespace/case-normalized conversation.
+     */
+    private String cacheKey(List<ChatMessage> messages, TripProfile profile) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            updateDigest(digest, model);
+            updateDigest(digest, buildProfileContext(profile));
+            if (messages != null) {
+                for (ChatMessage message : messages) {
+                    if (message == null) {
+                        continue;
+                    }
+                    updateDigest(digest, message.getRole());
+                    updateDigest(digest, normalizeForCacheKey(message.getText()));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private void updateDigest(MessageDigest digest, String value) {
+        digest.update((value == null ? "" : value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private String normalizeForCacheKey(String text) {
+        if (text == null) {
+            return "";
+        }
+        return WHITESPACE_PATTERN.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Feeds a cached reply through the streaming callback in small chunks so clients
+     * see the same delta events as for a live stream.
+     */
+    private void replay(String reply, Consumer<String> onDelta) {
+        StringBuilder pending = new StringBuilder();
+        for (int start = 0; start < reply.length(); start += REPLAY_CHUNK_SIZE) {
+            pending.append(reply, start, Math.min(reply.length(), start + REPLAY_CHUNK_SIZE));
+            if (!pending.toString().isBlank()) {
+                onDelta.accept(pending.toString());
+                pending.setLength(0);
+            }
+        }
+    }
+
     private void requireApiKey() {
         if (apiKey == null || apiKey.isBlank()) {
             throw new IllegalStateException("OpenAI API key is not configured.");
@@ -343,12 +487,14 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
     }
 
     @Override
-    public String analyzeOtherDocument(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType) {
+    public String analyzeOtherDocument(List<ChatMessage> messages, DocumentContent document) {
         requireApiKey();
 
         try {
+            String fileName = document.getFileName();
             String safeName = (fileName == null || fileName.isBlank()) ? "document" : fileName;
             return analyzeDocument(
+                "document",
                 "You are a travel assistant that reads miscellaneous travel documents (itineraries, "
                     + "insurance policies, visa confirmations, car rentals, activity bookings, mails, and receipts). "
                     + "Extract structured details: document type, traveler names, booking/reference numbers, "
@@ -359,8 +505,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
                 "Please analyze this uploaded travel document and summarize the details and constraints in HTML. "
                     + "File name: " + safeName + ".",
                 "Document PDF text (truncated):\n",
-                contentType,
-                fileBytes
+                document
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to analyze document with OpenAI API", e);
@@ -398,7 +543,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
             userMessage.put("role", "user");
             userMessage.put("content", "Assistant response:\n" + assistantResponse);
 
-            JsonNode contentNode = executeChat(root);
+            JsonNode contentNode = executeChat(root, CallKind.BACKGROUND, "itinerary");
             if (contentNode == null || contentNode.isNull()) {
                 return null;
             }
@@ -419,7 +564,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         }
     }
 
-    private String buildProfileContext(TripProfile profile) {
+    String buildProfileContext(TripProfile profile) {
         if (profile == null) {
             return null;
         }
@@ -470,26 +615,37 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return trimmed.isEmpty() ? null : trimmed;
     }
 
-    private JsonNode executeChat(ObjectNode root) throws Exception {
+    private JsonNode executeChat(ObjectNode root, CallKind kind, String operation) throws Exception {
         boolean useResponsesApi = hasWebSearchTool(root);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            JsonNode content = sendChat(root, kind, useResponsesApi);
+            outcome = "success";
+            return content;
+        } finally {
+            recordRequest(operation, useResponsesApi, outcome, start);
+        }
+    }
+
+    private JsonNode sendChat(ObjectNode root, CallKind kind, boolean useResponsesApi) throws Exception {
         ObjectNode requestPayload = useResponsesApi ? buildResponsesRequest(root) : root;
-        String requestBody = objectMapper.writeValueAsString(requestPayload);
+        HttpRequest.BodyPublisher requestBody = kind == CallKind.DOCUMENT
+            ? JsonBodyPublisher.of(objectMapper, requestPayload)
+            : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestPayload), StandardCharsets.UTF_8);
 
-        String endpoint = useResponsesApi
-            ? "https://api.openai.com/v1/responses"
-            : "https://api.openai.com/v1/chat/completions";
+        String endpoint = endpoint(useResponsesApi);
 
         HttpRequest httpRequest = HttpRequest.newBuilder()
             .uri(URI.create(endpoint))
             .header("Authorization", "Bearer " + apiKey)
             .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8))
+            .POST(requestBody)
             .build();
 
-        HttpResponse<String> response = httpClient.send(
-            httpRequest,
-            HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)
-        );
+        HttpResponse<String> response = kind == CallKind.BACKGROUND
+            ? openAiHttp.sendHedged(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8), backgroundDeadline)
+            : openAiHttp.send(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8), interactiveDeadline);
 
         if (response.statusCode() >= 400) {
             String responseBody = response.body();
@@ -504,6 +660,47 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return rootNode.path("choices").path(0).path("message").path("content");
     }
 
+    /**
+     * Records one OpenAI call (all attempts and, for streams, the whole body) under
+     * {@code openai.requests}, tagged by service operation and API endpoint.
+     */
+    private void recordRequest(String operation, boolean useResponsesApi, String outcome, long startNanos) {
+        Timer.builder("openai.requests")
+            .description("OpenAI API calls, retries and streamed bodies included")
+            .tag("operation", operation)
+            .tag("endpoint", useResponsesApi ? "responses" : "chat.completions")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordFirstToken(boolean useResponsesApi, long nanos) {
+        Timer.builder("openai.stream.first-token")
+            .description("Time from sending a streamed request to its first text delta")
+            .tag("endpoint", useResponsesApi ? "responses" : "chat.completions")
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Output tokens per second after the first delta. Uses the usage the API reports at the end
+     * of the stream, or the number of deltas (about one token each) when there is none.
+     */
+    private void recordGenerationRate(boolean useResponsesApi, long outputTokens, long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        DistributionSummary.builder("openai.stream.tokens-per-second")
+            .description("Output tokens per second while a reply streams")
+            .tag("endpoint", useResponsesApi ? "responses" : "chat.completions")
+            .register(meterRegistry)
+            .record(outputTokens * 1_000_000_000.0 / nanos);
+    }
+
+    private String endpoint(boolean useResponsesApi) {
+        return baseUrl + (useResponsesApi ? "/responses" : "/chat/completions");
+    }
+
     private boolean hasWebSearchTool(ObjectNode root) {
         if (root == null) {
             return false;
@@ -520,7 +717,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return false;
     }
 
-    private ObjectNode buildResponsesRequest(ObjectNode root) {
+    ObjectNode buildResponsesRequest(ObjectNode root) {
         ObjectNode request = objectMapper.createObjectNode();
         request.put("model", root.path("model").asText());
 
@@ -542,7 +739,7 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return request;
     }
 
-    private JsonNode extractResponseContent(JsonNode rootNode) {
+    JsonNode extractResponseContent(JsonNode rootNode) {
         if (rootNode == null || rootNode.isNull()) {
             return null;
         }
@@ -586,13 +783,15 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
     }
 
     private String analyzeDocument(
+        String operation,
         String systemPrompt,
         List<ChatMessage> messages,
         String userIntroText,
         String pdfPrefix,
-        String contentType,
-        byte[] fileBytes
+        DocumentContent document
     ) throws Exception {
+        String contentType = document.getContentType();
+
         ObjectNode root = objectMapper.createObjectNode();
         root.put("model", model);
 
@@ -613,25 +812,27 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
             .put("text", userIntroText);
 
         if (contentType != null && contentType.startsWith("image/")) {
-            String dataUrl = "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(fileBytes);
+            DocumentContent image = imagePreprocessingService.prepare(document);
             ObjectNode imageNode = contentArray.addObject();
             imageNode.put("type", "image_url");
             ObjectNode imageUrl = imageNode.putObject("image_url");
-            imageUrl.put("url", dataUrl);
+            imageUrl.putPOJO("url", new Base64JsonValue("data:" + image.getContentType() + ";base64,", image.getSource()));
             imageUrl.put("detail", "high");
         } else if ("application/pdf".equalsIgnoreCase(contentType)) {
-            String text = extractPdfText(fileBytes, pdfPrefix);
+            String text = pdfPromptText(document, pdfPrefix);
             contentArray.addObject()
                 .put("type", "text")
                 .put("text", text);
         } else {
-            String fallback = Base64.getEncoder().encodeToString(fileBytes);
             contentArray.addObject()
                 .put("type", "text")
-                .put("text", "Unknown file type (" + contentType + "). Base64 payload:\n" + fallback);
+                .putPOJO("text", new Base64JsonValue(
+                    "Unknown file type (" + contentType + "). Base64 payload:\n",
+                    document.getSource()
+                ));
         }
 
-        JsonNode contentNode = executeChat(root);
+        JsonNode contentNode = executeChat(root, CallKind.DOCUMENT, operation);
         if (contentNode == null || contentNode.isNull()) {
             return "The document could not be interpreted.";
         }
@@ -639,30 +840,6 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return contentNode.asText();
     }
 
-    private String extractPdfText(byte[] bytes, String prefix) {
-        if (bytes == null || bytes.length == 0) {
-            return "No PDF content provided.";
-        }
-
-        try (PDDocument document = PDDocument.load(bytes)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            if (text == null) {
-                return "PDF text could not be extracted.";
-            }
-            text = text.trim();
-            if (text.length() > 8000) {
-                text = text.substring(0, 8000);
-            }
-            if (text.isEmpty()) {
-                return "PDF text could not be extracted.";
-            }
-            return (prefix == null ? "" : prefix) + text;
-        } catch (IOException e) {
-            return "Unable to extract text from PDF. Please rely on the image or provide key details manually.";
-        }
-    }
-
     private String stripCodeFences(String content) {
         if (content == null) {
             return null;
@@ -678,6 +855,28 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         return content;
     }
 
+    private String pdfPromptText(DocumentContent document, String prefix) {
+        if (document.isEmpty()) {
+            return "No PDF content provided.";
+        }
+        String text;
+        if (document.getExtractedText() != null) {
+            text = document.getExtractedText();
+        } else if (document.isExtractionFailed()) {
+            // Already attempted by the caller; a second try would only wait for the same timeout.
+            text = null;
+        } else {
+            text = pdfTextExtractionService.extract(document).orElse(null);
+        }
+        if (text == null) {
+            return "Unable to extract text from PDF. Please rely on the image or provide key details manually.";
+        }
+        if (text.isEmpty()) {
+            return "PDF text could not be extracted.";
+        }
+        return (prefix == null ? "" : prefix) + text;
+    }
+
     private void stripTools(ObjectNode root) {
         if (root == null) {
             return;
@@ -685,4 +884,13 @@ public class OpenAiChatServiceImpl implements OpenAiChatService {
         root.remove("tools");
         root.remove("tool_choice");
     }
+
+    private enum CallKind {
+        /** A reply the user is waiting for. */
+        INTERACTIVE,
+        /** A user-facing document analysis whose body streams the file (see {@link Base64JsonValue}). */
+        DOCUMENT,
+        /** Title, itinerary and summary calls made after a reply; cheap enough to hedge. */
+        BACKGROUND
+    }
 }
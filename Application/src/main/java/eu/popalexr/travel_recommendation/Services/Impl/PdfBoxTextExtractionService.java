@@ -0,0 +1,134 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+import eu.popalexr.travel_recommendation.Services.PdfTextExtractionService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class PdfBoxTextExtractionService implements PdfTextExtractionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PdfBoxTextExtractionService.class);
+
+    private final ExecutorService executor;
+    private final int maxChars;
+    private final int maxPages;
+    private final long tempFileThresholdBytes;
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary pagesRead;
+
+    public PdfBoxTextExtractionService(
+        @Qualifier("pdfExtractionExecutor") ExecutorService executor,
+        MeterRegistry meterRegistry,
+        @Value("${pdf.extraction.max-chars:8000}") int maxChars,
+        @Value("${pdf.extraction.max-pages:50}") int maxPages,
+        @Value("${pdf.extraction.temp-file-threshold-bytes:2097152}") long tempFileThresholdBytes,
+        @Value("${pdf.extraction.timeout-ms:15000}") long timeoutMillis
+    ) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.maxChars = maxChars;
+        this.maxPages = maxPages;
+        this.tempFileThresholdBytes = tempFileThresholdBytes;
+        this.timeoutMillis = timeoutMillis;
+        this.pagesRead = DistributionSummary.builder("pdf.extraction.pages")
+            .description("PDF pages read per upload")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<String> extract(DocumentContent document) {
+        if (document == null || document.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        Future<String> job = null;
+        try {
+            job = executor.submit(() -> extractPages(document));
+            String text = job.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            outcome = "ok";
+            return Optional.of(text);
+        } catch (RejectedExecutionException e) {
+            outcome = "rejected";
+            LOG.warn("PDF extraction pool is full; skipping text extraction for a {} byte upload", document.getSize());
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            // The extraction loop checks for interruption between pages.
+            job.cancel(true);
+            LOG.warn("PDF extraction timed out after {} ms for a {} byte upload", timeoutMillis, document.getSize());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancel(true);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } finally {
+            Timer.builder("pdf.extraction")
+                .description("Time spent extracting text from uploaded PDFs")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads one page at a time and stops as soon as the character budget, the page limit
+     * or an interrupt is reached. Large files are buffered in a temp file instead of the heap.
+     */
+    private String extractPages(DocumentContent source) throws IOException {
+        MemoryUsageSetting memory = source.getSize() > tempFileThresholdBytes
+            ? MemoryUsageSetting.setupTempFileOnly()
+            : MemoryUsageSetting.setupMainMemoryOnly();
+
+        long start = System.nanoTime();
+        try (InputStream in = source.openStream(); PDDocument document = PDDocument.load(in, memory)) {
+            int totalPages = document.getNumberOfPages();
+            int lastPage = Math.min(totalPages, maxPages);
+            PDFTextStripper stripper = new PDFTextStripper();
+            StringBuilder text = new StringBuilder();
+
+            int page = 0;
+            while (page < lastPage && text.length() < maxChars && !Thread.currentThread().isInterrupted()) {
+                page++;
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                text.append(stripper.getText(document));
+            }
+            pagesRead.record(page);
+
+            String result = text.toString().trim();
+            if (result.length() > maxChars) {
+                result = result.substring(0, maxChars);
+            }
+            LOG.debug(
+                "Extracted {} chars from {} of {} PDF pages ({} bytes) in {} ms",
+                result.length(), page, totalPages, source.getSize(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.DTOs.PostProcessingResult;
+import eu.popalexr.travel_recommendation.Repositories.ChatMessageRepository;
+import eu.popalexr.travel_recommendation.Repositories.ChatRepository;
+import eu.popalexr.travel_recommendation.Services.OpenAiChatService;
+import eu.popalexr.travel_recommendation.Services.ReplyPostProcessingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Service
+public class ReplyPostProcessingServiceImpl implements ReplyPostProcessingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplyPostProcessingServiceImpl.class);
+
+    private static final String DEFAULT_TITLE = "New travel chat";
+
+    private final OpenAiChatService chatService;
+    private final ChatRepository chatRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final Executor executor;
+    private final Map<Long, CompletableFuture<PostProcessingResult>> pendingJobs = new ConcurrentHashMap<>();
+
+    public ReplyPostProcessingServiceImpl(
+        OpenAiChatService chatService,
+        ChatRepository chatRepository,
+        ChatMessageRepository chatMessageRepository,
+        @Qualifier("replyPostProcessingExecutor") Executor executor
+    ) {
+        this.chatService = chatService;
+        this.chatRepository = chatRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<PostProcessingResult> submit(
+        Long chatId,
+        Long assistantMessageId,
+        String userMessageText,
+        String reply,
+        boolean extractItinerary,
+        boolean generateTitle
+    ) {
+        CompletableFuture<PostProcessingResult> job = CompletableFuture.supplyAsync(
+            () -> process(chatId, assistantMessageId, userMessageText, reply, extractItinerary, generateTitle),
+            executor
+        );
+        pendingJobs.put(chatId, job);
+        job.whenComplete((result, error) -> {
+            pendingJobs.remove(chatId, job);
+            if (error != null) {
+                LOG.warn("Post-processing failed for chat {}: {}", chatId, error.getMessage());
+            }
+        });
+        return job;
+    }
+
+    @Override
+    public boolean isPending(Long chatId) {
+        return chatId != null && pendingJobs.containsKey(chatId);
+    }
+
+    private PostProcessingResult process(
+        Long chatId,
+        Long assistantMessageId,
+        String userMessageText,
+        String reply,
+        boolean extractItinerary,
+        boolean generateTitle
+    ) {
+        String itineraryJson = null;
+        if (extractItinerary) {
+            itineraryJson = chatService.extractItineraryJson(reply);
+            if (itineraryJson != null) {
+                // The reply may have been replaced by an edit/regenerate meanwhile; the update is then a no-op.
+                chatMessageRepository.updateItineraryJson(assistantMessageId, itineraryJson);
+            }
+        }
+
+        String title = null;
+        if (generateTitle) {
+            title = DEFAULT_TITLE;
+            try {
+                title = chatService.generateTitle(userMessageText, reply);
+            } catch (Exception ignored) {
+                // Title generation should not block delivering recommendations.
+            }
+            chatRepository.updateTitle(chatId, title);
+        }
+
+        return new PostProcessingResult(chatId, assistantMessageId, title, itineraryJson);
+    }
+}
@@ -0,0 +1,35 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Models.ChatMessage;
+
+/**
+ * Cheap token estimate (about four characters per token, plus the per-message framing the
+ * chat APIs add). Good enough for budgeting; it never calls a tokenizer.
+ */
+final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private TokenEstimator() {
+    }
+
+    static int estimateText(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    static int estimateMessage(String text) {
+        if (text == null) {
+            return 0;
+        }
+        return estimateText(text) + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    static int estimate(ChatMessage message) {
+        return message == null ? 0 : estimateMessage(message.getText() == null ? "" : message.getText());
+    }
+}
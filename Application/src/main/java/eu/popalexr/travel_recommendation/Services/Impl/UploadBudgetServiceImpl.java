@@ -0,0 +1,71 @@
+package eu.popalexr.travel_recommendation.Services.Impl;
+
+import eu.popalexr.travel_recommendation.Services.UploadBudgetService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the total size of uploads being hashed, extracted and sent to OpenAI at once.
+ * Permits are KiB of the budget; a file larger than the whole budget takes all of it.
+ * Waiting uploads are served in arrival order.
+ */
+@Service
+public class UploadBudgetServiceImpl implements UploadBudgetService {
+
+    private static final long PERMIT_BYTES = 1024;
+
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final long waitMillis;
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final Counter rejected;
+
+    public UploadBudgetServiceImpl(
+        MeterRegistry meterRegistry,
+        @Value("${uploads.in-flight.max-bytes:67108864}") long maxBytes,
+        @Value("${uploads.in-flight.wait-ms:5000}") long waitMillis
+    ) {
+        this.totalPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / PERMIT_BYTES));
+        this.permits = new Semaphore(totalPermits, true);
+        this.waitMillis = waitMillis;
+
+        Gauge.builder("uploads.in-flight.bytes", inFlightBytes, AtomicLong::get)
+            .description("Bytes of uploads currently being processed")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("uploads.rejected")
+            .description("Uploads rejected because the in-flight byte budget stayed full")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Reservation reserve(long bytes) {
+        int needed = (int) Math.min(totalPermits, Math.max(1, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES));
+        try {
+            if (!permits.tryAcquire(needed, waitMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        inFlightBytes.addAndGet(bytes);
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlightBytes.addAndGet(-bytes);
+                permits.release(needed);
+            }
+        };
+    }
+}
@@ -26,7 +26,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public User register(RegisterRequest request) {
         final String normalizedEmail = request.getEmail().trim().toLowerCase();
-        if (userRepository.existsByEmailIgnoreCase(normalizedEmail)) {
+        if (userRepository.existsByEmail(normalizedEmail)) {
             throw new EmailAlreadyInUseException("Email is already registered.");
         }
 
@@ -43,7 +43,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public User authenticate(LoginRequest request) {
-        return userRepository.findByEmailIgnoreCase(request.getEmail().trim().toLowerCase())
+        return userRepository.findByEmail(request.getEmail().trim().toLowerCase())
             .filter(user -> passwordEncoder.matches(request.getPassword(), user.getPasswordHash()))
             .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password."));
     }
@@ -1,5 +1,6 @@
 package eu.popalexr.travel_recommendation.Services;
 
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
 import eu.popalexr.travel_recommendation.Models.ChatMessage;
 import eu.popalexr.travel_recommendation.Models.TripProfile;
 
@@ -13,13 +14,29 @@ public interface OpenAiChatService {
      * and returns the assistant reply as an HTML snippet
      * (no outer &lt;html&gt; or &lt;body&gt; tags).
      */
-    String chat(List<ChatMessage> messages, TripProfile profile);
+    default String chat(List<ChatMessage> messages, TripProfile profile) {
+        return chat(messages, profile, false);
+    }
+
+    /**
+     * Same as {@link #chat(List, TripProfile)}; when {@code bypassCache} is true the recommendation
+     * cache is neither read nor written and the request always goes to OpenAI.
+     */
+    String chat(List<ChatMessage> messages, TripProfile profile, boolean bypassCache);
 
     /**
      * Streams the assistant reply. The provided consumer is invoked with each incremental
      * text delta. The full concatenated reply is returned once streaming completes.
      */
-    String streamChat(List<ChatMessage> messages, TripProfile profile, Consumer<String> onDelta);
+    default String streamChat(List<ChatMessage> messages, TripProfile profile, Consumer<String> onDelta) {
+        return streamChat(messages, profile, onDelta, false);
+    }
+
+    /**
+     * Same as {@link #streamChat(List, TripProfile, Consumer)}; cached replies are replayed through
+     * {@code onDelta} unless {@code bypassCache} is true.
+     */
+    String streamChat(List<ChatMessage> messages, TripProfile profile, Consumer<String> onDelta, boolean bypassCache);
 
     /**
      * Generates a short, human-readable title for a chat,
@@ -27,23 +44,35 @@ public interface OpenAiChatService {
      */
     String generateTitle(String firstUserMessage, String assistantReply);
 
+    /**
+     * Folds the given messages into an existing rolling summary of the conversation
+     * (which may be null) and returns the updated plain-text summary.
+     */
+    String summarizeHistory(String previousSummary, List<ChatMessage> messages);
+
+    /**
+     * Estimated tokens taken by the system prompt and trip profile context that precede
+     * the chat history in a recommendation request.
+     */
+    int estimatePromptOverheadTokens(TripProfile profile);
+
     /**
      * Reads an uploaded airplane ticket (PDF or image), extracts the travel details,
      * and returns a concise HTML summary that can be shown inside the chat feed.
      */
-    String analyzeTicket(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType);
+    String analyzeTicket(List<ChatMessage> messages, DocumentContent document);
 
     /**
      * Reads an uploaded accommodation invoice/booking confirmation (PDF or image),
      * extracts stay details, and returns a concise HTML summary suitable for the chat feed.
      */
-    String analyzeAccommodation(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType);
+    String analyzeAccommodation(List<ChatMessage> messages, DocumentContent document);
 
     /**
      * Reads an uploaded travel-related document (PDF or image),
      * extracts relevant details, and returns a concise HTML summary suitable for the chat feed.
      */
-    String analyzeOtherDocument(List<ChatMessage> messages, String fileName, byte[] fileBytes, String contentType);
+    String analyzeOtherDocument(List<ChatMessage> messages, DocumentContent document);
 
     /**
      * Extracts itinerary day data from an assistant response and returns JSON (string).
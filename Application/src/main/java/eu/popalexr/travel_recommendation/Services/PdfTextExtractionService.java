@@ -0,0 +1,16 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.DTOs.DocumentContent;
+
+import java.util.Optional;
+
+public interface PdfTextExtractionService {
+
+    /**
+     * Extracts text from an uploaded PDF, reading pages in order and stopping once the
+     * configured character budget is reached. The text is empty when the PDF has none;
+     * the result is empty when the file could not be read in time. The file is streamed from
+     * the document's source rather than loaded onto the heap.
+     */
+    Optional<String> extract(DocumentContent document);
+}
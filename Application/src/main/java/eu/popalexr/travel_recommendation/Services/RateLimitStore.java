@@ -0,0 +1,29 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import java.time.Duration;
+
+/**
+ * Holds per-user rate limit state. The only implementation is the in-memory store, which limits
+ * each node on its own; limits shared across nodes would need another implementation.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket under {@code key}, which holds up to {@code capacity}
+     * tokens and refills at {@code refillPerSecond}. Returns {@link Duration#ZERO} when a token
+     * was taken, otherwise how long until the next one is available.
+     */
+    Duration tryConsume(String key, int capacity, double refillPerSecond);
+
+    /**
+     * Takes one of {@code maxConcurrent} slots under {@code key}. Returns null when all are in
+     * use. Close the lease when the work it guards has finished.
+     */
+    Lease tryAcquire(String key, int maxConcurrent);
+
+    interface Lease extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,16 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import java.util.Optional;
+
+public interface RecommendationCache {
+
+    /**
+     * Returns a previously stored assistant reply for the given request fingerprint, if still valid.
+     */
+    Optional<String> get(String key);
+
+    /**
+     * Stores the assistant reply produced for the given request fingerprint.
+     */
+    void put(String key, String reply);
+}
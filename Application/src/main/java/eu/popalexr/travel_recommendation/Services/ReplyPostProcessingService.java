@@ -0,0 +1,27 @@
+package eu.popalexr.travel_recommendation.Services;
+
+import eu.popalexr.travel_recommendation.DTOs.PostProcessingResult;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ReplyPostProcessingService {
+
+    /**
+     * Queues the follow-up work for an already persisted assistant reply: itinerary extraction
+     * (stored on the message) and, for new chats, title generation (stored on the chat).
+     * The returned future completes once both results have been written.
+     */
+    CompletableFuture<PostProcessingResult> submit(
+        Long chatId,
+        Long assistantMessageId,
+        String userMessageText,
+        String reply,
+        boolean extractItinerary,
+        boolean generateTitle
+    );
+
+    /**
+     * Returns true while a post-processing job for the given chat is queued or running.
+     */
+    boolean isPending(Long chatId);
+}
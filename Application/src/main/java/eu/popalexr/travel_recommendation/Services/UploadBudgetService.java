@@ -0,0 +1,17 @@
+package eu.popalexr.travel_recommendation.Services;
+
+public interface UploadBudgetService {
+
+    /**
+     * Reserves room for an upload of the given size in the global in-flight byte budget,
+     * waiting up to the configured time for earlier uploads to finish. Returns null when no
+     * room became available in time. Close the reservation once the upload has been processed.
+     */
+    Reservation reserve(long bytes);
+
+    interface Reservation extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
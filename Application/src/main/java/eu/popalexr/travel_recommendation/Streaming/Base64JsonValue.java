@@ -0,0 +1,116 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A JSON string made of a text prefix followed by the base64 encoding of a stream, e.g. an
+ * image data URL. Put it into a tree with {@code ObjectNode.putPOJO}; when the tree is
+ * written, the stream is read and encoded chunk by chunk straight into the generator, so the
+ * file never exists on the heap as bytes or as a base64 {@code String}.
+ */
+public final class Base64JsonValue implements JsonSerializable {
+
+    // A multiple of 3, so chunks encode without padding until the last one.
+    private static final int CHUNK_BYTES = 3 * 16 * 1024;
+
+    private final String prefix;
+    private final InputStreamSource source;
+
+    public Base64JsonValue(String prefix, InputStreamSource source) {
+        this.prefix = prefix == null ? "" : prefix;
+        this.source = source;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        try (InputStream in = source.getInputStream(); Reader reader = new EncodingReader(prefix, in)) {
+            gen.writeString(reader, -1);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.VALUE_STRING));
+        serialize(gen, serializers);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private static final class EncodingReader extends Reader {
+
+        private final InputStream in;
+        private final Base64.Encoder encoder = Base64.getEncoder();
+        private final byte[] raw = new byte[CHUNK_BYTES];
+        private final byte[] encoded = new byte[CHUNK_BYTES / 3 * 4];
+        private String prefix;
+        private int prefixPos;
+        private int encodedPos;
+        private int encodedLength;
+        private boolean eof;
+
+        private EncodingReader(String prefix, InputStream in) {
+            this.prefix = prefix;
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (prefix != null) {
+                int n = Math.min(length, prefix.length() - prefixPos);
+                prefix.getChars(prefixPos, prefixPos + n, buffer, offset);
+                prefixPos += n;
+                if (prefixPos == prefix.length()) {
+                    prefix = null;
+                }
+                return n;
+            }
+            if (encodedPos == encodedLength && !fill()) {
+                return -1;
+            }
+            int n = Math.min(length, encodedLength - encodedPos);
+            for (int i = 0; i < n; i++) {
+                buffer[offset + i] = (char) encoded[encodedPos + i];
+            }
+            encodedPos += n;
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            int read = in.readNBytes(raw, 0, raw.length);
+            if (read < raw.length) {
+                eof = true;
+            }
+            if (read == 0) {
+                return false;
+            }
+            encodedLength = read == raw.length
+                ? encoder.encode(raw, encoded)
+                : encoder.encode(Arrays.copyOf(raw, read), encoded);
+            encodedPos = 0;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // The stream is closed by the caller.
+        }
+    }
+}
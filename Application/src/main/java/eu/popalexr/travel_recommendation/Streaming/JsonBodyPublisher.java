@@ -0,0 +1,50 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Request body publisher that serializes a JSON tree while the request is being sent instead
+ * of rendering it to a {@code String} first. A virtual thread writes into a pipe that the
+ * HTTP client reads from, so a large document payload (see {@link Base64JsonValue}) only ever
+ * occupies the pipe buffer.
+ */
+public final class JsonBodyPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonBodyPublisher.class);
+
+    private static final int PIPE_BUFFER_BYTES = 64 * 1024;
+
+    private JsonBodyPublisher() {
+    }
+
+    public static HttpRequest.BodyPublisher of(ObjectMapper objectMapper, JsonNode payload) {
+        // Called again for every attempt, so each one gets a fresh pipe and writer.
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            PipedInputStream in = new PipedInputStream(PIPE_BUFFER_BYTES);
+            PipedOutputStream out;
+            try {
+                out = new PipedOutputStream(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Thread.ofVirtual().name("openai-request-body").start(() -> {
+                try (out) {
+                    objectMapper.writeValue(out, payload);
+                } catch (IOException e) {
+                    // The reader side closes the pipe when the request fails or is cancelled.
+                    LOG.debug("Stopped writing request body: {}", e.getMessage());
+                }
+            });
+            return in;
+        });
+    }
+}
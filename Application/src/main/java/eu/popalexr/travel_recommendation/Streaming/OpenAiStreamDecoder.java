@@ -0,0 +1,356 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Decodes an OpenAI server-sent event stream straight from the response bytes.
+ *
+ * <p>Lines are split in a reusable byte buffer, multi-line {@code data:} fields are joined
+ * as the SSE spec describes, and each event's JSON is read with Jackson's streaming
+ * {@link JsonParser}, so no per-line {@code String} or {@code JsonNode} tree is built.
+ * Only the text deltas are materialized and handed to the consumer; the output token count
+ * from the final usage block is kept for {@link #outputTokens()}.
+ *
+ * <p>Instances keep their buffers between calls and are not thread-safe.
+ */
+public final class OpenAiStreamDecoder {
+
+    public enum Format {
+        /** {@code /v1/chat/completions}: {@code choices[0].delta.content}. */
+        CHAT_COMPLETIONS,
+        /** {@code /v1/responses}: {@code response.output_text.delta} events. */
+        RESPONSES
+    }
+
+    private static final int READ_CHUNK_SIZE = 8192;
+
+    private static final byte[] DATA_FIELD = {'d', 'a', 't', 'a'};
+
+    private static final byte[] DONE = {'[', 'D', 'O', 'N', 'E', ']'};
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private static final String RESPONSES_DELTA_TYPE = "response.output_text.delta";
+
+    private static final String RESPONSES_ERROR_TYPE = "response.error";
+
+    private final JsonFactory jsonFactory;
+    private final Format format;
+
+    private final byte[] readBuffer = new byte[READ_CHUNK_SIZE];
+    private byte[] line = new byte[512];
+    private int lineLength;
+    private byte[] data = new byte[1024];
+    private int dataLength;
+    private boolean hasData;
+    private long outputTokens;
+
+    public OpenAiStreamDecoder(JsonFactory jsonFactory, Format format) {
+        this.jsonFactory = jsonFactory;
+        this.format = format;
+    }
+
+    /**
+     * Reads events until {@code [DONE]} or the end of the stream and passes every non-blank
+     * text delta to {@code onDelta}. An error event from the Responses API is rethrown as a
+     * {@link RuntimeException} carrying the upstream message.
+     */
+    public void decode(InputStream in, Consumer<String> onDelta) throws IOException {
+        lineLength = 0;
+        dataLength = 0;
+        hasData = false;
+        outputTokens = -1;
+        boolean lastWasCr = false;
+
+        int read;
+        while ((read = in.read(readBuffer)) != -1) {
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                byte b = readBuffer[i];
+                if (b != '\n' && b != '\r') {
+                    lastWasCr = false;
+                    continue;
+                }
+                if (b == '\n' && lastWasCr) {
+                    // Second half of a CRLF pair; the line was already handled at the CR.
+                    lastWasCr = false;
+                    lineStart = i + 1;
+                    continue;
+                }
+                lastWasCr = b == '\r';
+                appendToLine(readBuffer, lineStart, i - lineStart);
+                lineStart = i + 1;
+                if (!processLine(onDelta)) {
+                    return;
+                }
+            }
+            appendToLine(readBuffer, lineStart, read - lineStart);
+        }
+
+        // Be lenient with streams that end without the terminating blank line.
+        if (lineLength > 0) {
+            if (!processLine(onDelta)) {
+                return;
+            }
+        }
+        dispatch(onDelta);
+    }
+
+    /**
+     * Output tokens reported by the last {@link #decode} call, or -1 when the stream had no usage
+     * block (chat completions only send one when {@code stream_options.include_usage} is set).
+     */
+    public long outputTokens() {
+        return outputTokens;
+    }
+
+    /**
+     * Handles the line currently held in {@link #line}. Returns false once {@code [DONE]}
+     * has been seen.
+     */
+    private boolean processLine(Consumer<String> onDelta) throws IOException {
+        int length = lineLength;
+        lineLength = 0;
+
+        if (length == 0) {
+            return dispatch(onDelta);
+        }
+        if (line[0] == ':') {
+            return true;
+        }
+
+        int colon = indexOf(line, length, (byte) ':');
+        int nameLength = colon < 0 ? length : colon;
+        if (nameLength != DATA_FIELD.length || !Arrays.equals(line, 0, nameLength, DATA_FIELD, 0, DATA_FIELD.length)) {
+            // event:, id:, retry: and unknown fields carry nothing we need.
+            return true;
+        }
+
+        int valueStart = colon < 0 ? length : colon + 1;
+        if (valueStart < length && line[valueStart] == ' ') {
+            valueStart++;
+        }
+        if (hasData) {
+            appendToData(NEWLINE, 0, 1);
+        }
+        appendToData(line, valueStart, length - valueStart);
+        hasData = true;
+        return true;
+    }
+
+    /**
+     * Handles the buffered {@code data} payload of one event. Returns false on {@code [DONE]}.
+     */
+    private boolean dispatch(Consumer<String> onDelta) throws IOException {
+        if (!hasData) {
+            return true;
+        }
+        int start = 0;
+        int end = dataLength;
+        hasData = false;
+        dataLength = 0;
+
+        while (start < end && isWhitespace(data[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(data[end - 1])) {
+            end--;
+        }
+        if (end - start == DONE.length && Arrays.equals(data, start, end, DONE, 0, DONE.length)) {
+            return false;
+        }
+        if (start == end || (data[start] != '{' && data[start] != '[')) {
+            // Skip non-JSON payloads.
+            return true;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(data, start, end - start)) {
+            if (format == Format.RESPONSES) {
+                readResponsesEvent(parser, onDelta);
+            } else {
+                readChatCompletionChunk(parser, onDelta);
+            }
+        }
+        return true;
+    }
+
+    private void readResponsesEvent(JsonParser parser, Consumer<String> onDelta) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return;
+        }
+        String type = null;
+        String delta = null;
+        String errorMessage = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("type".equals(field) && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+            } else if ("delta".equals(field) && value == JsonToken.VALUE_STRING) {
+                delta = parser.getText();
+            } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+                errorMessage = readErrorMessage(parser);
+            } else if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+                // Only response.completed carries usage; other events echo the response without it.
+                readResponseUsage(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (RESPONSES_ERROR_TYPE.equals(type)) {
+            throw new RuntimeException(errorMessage == null ? "Failed to stream recommendation." : errorMessage);
+        }
+        if (RESPONSES_DELTA_TYPE.equals(type)) {
+            emit(delta, onDelta);
+        }
+    }
+
+    private void readResponseUsage(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                readUsage(parser, "output_tokens");
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readUsage(JsonParser parser, String outputField) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (outputField.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                outputTokens = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private String readErrorMessage(JsonParser parser) throws IOException {
+        String message = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("message".equals(field) && value == JsonToken.VALUE_STRING) {
+                message = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private void readChatCompletionChunk(JsonParser parser, Consumer<String> onDelta) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                readFirstChoice(parser, onDelta);
+            } else if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                readUsage(parser, "completion_tokens");
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readFirstChoice(JsonParser parser, Consumer<String> onDelta) throws IOException {
+        boolean first = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (first && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("delta".equals(field) && value == JsonToken.START_OBJECT) {
+                        readDeltaContent(parser, onDelta);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            first = false;
+        }
+    }
+
+    private void readDeltaContent(JsonParser parser, Consumer<String> onDelta) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"content".equals(field)) {
+                parser.skipChildren();
+            } else if (value == JsonToken.VALUE_STRING) {
+                emit(parser.getText(), onDelta);
+            } else if (value == JsonToken.START_ARRAY) {
+                JsonToken item;
+                while ((item = parser.nextToken()) != JsonToken.END_ARRAY && item != null) {
+                    if (item == JsonToken.VALUE_STRING) {
+                        emit(parser.getText(), onDelta);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void emit(String delta, Consumer<String> onDelta) {
+        if (delta != null && !delta.isBlank()) {
+            onDelta.accept(delta);
+        }
+    }
+
+    private void appendToLine(byte[] source, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(source, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void appendToData(byte[] source, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (dataLength + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length));
+        }
+        System.arraycopy(source, offset, data, dataLength, length);
+        dataLength += length;
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte value) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
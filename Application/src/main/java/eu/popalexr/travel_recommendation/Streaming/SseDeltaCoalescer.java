@@ -0,0 +1,168 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Batches OpenAI token deltas before they are written to an {@link SseEmitter}.
+ *
+ * <p>Each {@code delta} event costs a Jackson serialization and a flush of the servlet
+ * output stream, so sending one per token means thousands of tiny writes per reply.
+ * Deltas are buffered and sent as one event once {@code chat.streaming.coalesce.max-chars}
+ * characters are pending or {@code chat.streaming.coalesce.window-ms} has passed since the
+ * first pending delta, whichever comes first. A window of 0 sends every delta immediately.
+ */
+@Component
+public class SseDeltaCoalescer {
+
+    private final int maxChars;
+    private final long windowMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final Counter deltasReceived;
+    private final Counter eventsSent;
+    private final DistributionSummary flushBytes;
+
+    public SseDeltaCoalescer(
+        MeterRegistry meterRegistry,
+        @Value("${chat.streaming.coalesce.max-chars:256}") int maxChars,
+        @Value("${chat.streaming.coalesce.window-ms:40}") long windowMillis
+    ) {
+        this.maxChars = Math.max(1, maxChars);
+        this.windowMillis = Math.max(0, windowMillis);
+        this.scheduler = new ScheduledThreadPoolExecutor(
+            1,
+            Thread.ofPlatform().name("sse-delta-timer-", 0).daemon(true).factory()
+        );
+        this.scheduler.setRemoveOnCancelPolicy(true);
+
+        this.deltasReceived = Counter.builder("chat.stream.deltas.received")
+            .description("Token deltas received from OpenAI")
+            .register(meterRegistry);
+        this.eventsSent = Counter.builder("chat.stream.delta.events")
+            .description("Delta events written to SSE clients")
+            .register(meterRegistry);
+        this.flushBytes = DistributionSummary.builder("chat.stream.flush.bytes")
+            .description("UTF-8 bytes of delta text per SSE write")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts a buffer for one streamed reply. Close it before sending the final event so the
+     * remaining text goes out first.
+     */
+    public Buffer open(SseEmitter emitter) {
+        return new Buffer(emitter);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public final class Buffer implements Consumer<String>, AutoCloseable {
+
+        private final SseEmitter emitter;
+        private final StringBuilder pending = new StringBuilder();
+        private ScheduledFuture<?> scheduledFlush;
+        private boolean closed;
+        private boolean failed;
+
+        private Buffer(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void accept(String chunk) {
+            if (chunk == null || chunk.isBlank()) {
+                return;
+            }
+            deltasReceived.increment();
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pending.append(chunk);
+                if (windowMillis == 0 || pending.length() >= maxChars) {
+                    flush();
+                } else if (scheduledFlush == null) {
+                    // The timer thread only hands off; the write itself may block on a slow client.
+                    scheduledFlush = scheduler.schedule(
+                        () -> Thread.ofVirtual().name("sse-delta-flush").start(this::flush),
+                        windowMillis,
+                        TimeUnit.MILLISECONDS
+                    );
+                }
+            }
+        }
+
+        /**
+         * Sends whatever is pending as a single {@code delta} event.
+         */
+        public synchronized void flush() {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            String content = pending.toString();
+            pending.setLength(0);
+            if (failed) {
+                return;
+            }
+            try {
+                emitter.send(
+                    SseEmitter.event()
+                        .name("delta")
+                        .data(Map.of("content", content))
+                );
+                eventsSent.increment();
+                flushBytes.record(utf8Length(content));
+            } catch (Exception ignored) {
+                // Client likely disconnected; stop writing but keep consuming the reply.
+                failed = true;
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            flush();
+            closed = true;
+        }
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,176 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long-lived SSE streaming jobs on virtual threads instead of the common ForkJoinPool.
+ * At most {@code max-concurrent} streams talk to the upstream at once; further streams wait
+ * (up to {@code max-queued}) for a slot and anything beyond that is rejected.
+ * On application stop, running streams get a grace period and any emitter still open
+ * afterwards receives an error event and is completed.
+ */
+@Component
+public class SseStreamExecutor implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SseStreamExecutor.class);
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long shutdownGraceSeconds;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<SseEmitter> openEmitters = ConcurrentHashMap.newKeySet();
+    private final Counter rejectedCounter;
+    private volatile boolean running;
+
+    public SseStreamExecutor(
+        @Value("${chat.streaming.max-concurrent:64}") int maxConcurrent,
+        @Value("${chat.streaming.max-queued:128}") int maxQueued,
+        @Value("${chat.streaming.shutdown-grace-seconds:10}") long shutdownGraceSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-stream-", 0).factory());
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+
+        Gauge.builder("chat.stream.active", active, AtomicInteger::get)
+            .description("Streaming replies currently holding an upstream slot")
+            .register(meterRegistry);
+        Gauge.builder("chat.stream.queued", queued, AtomicInteger::get)
+            .description("Streaming replies waiting for an upstream slot")
+            .register(meterRegistry);
+        Gauge.builder("chat.stream.emitters.open", openEmitters, Set::size)
+            .description("SSE emitters that have not completed yet")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("chat.stream.rejected")
+            .description("Streaming replies rejected because the queue was full or the server was stopping")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns false when new streams would be rejected right away, so callers can answer
+     * with 503 before persisting anything.
+     */
+    public boolean isAccepting() {
+        return running && queued.get() < maxQueued;
+    }
+
+    /**
+     * Schedules the given streaming job. The emitter is tracked until it completes so it can
+     * be closed on shutdown.
+     *
+     * @throws RejectedExecutionException when the wait queue is full or the server is stopping
+     */
+    public void submit(SseEmitter emitter, Runnable task) {
+        if (!running) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Streaming executor is stopping.");
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Streaming capacity exhausted.");
+        }
+
+        track(emitter);
+        try {
+            executor.execute(() -> runWithSlot(task));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    private void runWithSlot(Runnable task) {
+        boolean acquired = false;
+        try {
+            slots.acquire();
+            acquired = true;
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            task.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.warn("Streaming job failed: {}", e.getMessage());
+        } finally {
+            if (acquired) {
+                active.decrementAndGet();
+                slots.release();
+            } else {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    private void track(SseEmitter emitter) {
+        if (emitter == null) {
+            return;
+        }
+        openEmitters.add(emitter);
+        emitter.onCompletion(() -> openEmitters.remove(emitter));
+        emitter.onTimeout(() -> openEmitters.remove(emitter));
+        emitter.onError(error -> openEmitters.remove(emitter));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                LOG.warn("Interrupting {} streaming replies still running after {}s", active.get(), shutdownGraceSeconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        for (SseEmitter emitter : openEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name("error").data(Map.of("error", "The server is restarting. Please try again.")));
+            } catch (Exception ignored) {
+                // Client might have disconnected already.
+            } finally {
+                try {
+                    emitter.complete();
+                } catch (Exception ignored) {
+                    // Ignore completion issues.
+                }
+            }
+        }
+        openEmitters.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
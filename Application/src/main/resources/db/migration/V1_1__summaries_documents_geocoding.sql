@@ -0,0 +1,35 @@
+-- Tables and columns added after the baseline schema. Versioned above 1 so databases that
+-- are baselined at V1 still receive them.
+
+-- Rolling summary of the turns that fall out of the model's context window.
+alter table chats
+    add column history_summary longtext,
+    add column summary_through_message_id bigint;
+
+-- Analyses of uploaded documents, reused when the same file is uploaded again.
+create table uploaded_documents (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    content_sha256 varchar(64) not null,
+    document_type enum ('TICKET', 'ACCOMMODATION', 'OTHER') not null,
+    content_type varchar(100),
+    size_bytes bigint not null,
+    extracted_text longtext,
+    analysis_html longtext not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_uploaded_documents_user_hash_type unique (user_id, content_sha256, document_type)
+) engine = InnoDB;
+
+-- Cached Mapbox lookups of itinerary locations. The key is compared byte for byte: under the
+-- default accent-insensitive collation "sao paulo" would match the "são paulo" row.
+create table geocoded_locations (
+    id bigint not null auto_increment,
+    query_key varchar(255) character set utf8mb4 collate utf8mb4_bin not null,
+    latitude double not null,
+    longitude double not null,
+    display_name varchar(512),
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_geocoded_locations_query_key unique (query_key)
+) engine = InnoDB;
@@ -0,0 +1,57 @@
+-- Schema as created by hibernate.ddl-auto=update before migrations were introduced.
+-- Databases that already have these tables are baselined at version 1 and skip this script,
+-- so it must not contain anything added since; later additions go in their own versions.
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(180) not null,
+    password_hash varchar(255) not null,
+    first_name varchar(80),
+    last_name varchar(80),
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id),
+    constraint uk_users_email unique (email)
+) engine = InnoDB;
+
+create table auth_sessions (
+    id varchar(50) not null,
+    user_id bigint not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    revoked_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table chats (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    title varchar(255),
+    primary key (id),
+    constraint fk_chats_user foreign key (user_id) references users (id)
+) engine = InnoDB;
+
+create table chat_messages (
+    id bigint not null auto_increment,
+    chat_id bigint not null,
+    role varchar(32) not null,
+    `text` longtext not null,
+    itinerary_json longtext,
+    primary key (id),
+    constraint fk_chat_messages_chat foreign key (chat_id) references chats (id)
+) engine = InnoDB;
+
+create table trip_profiles (
+    id bigint not null auto_increment,
+    chat_id bigint not null,
+    destination varchar(180),
+    start_date varchar(20),
+    end_date varchar(20),
+    budget varchar(120),
+    travelers varchar(120),
+    interests text,
+    `constraints` text,
+    primary key (id),
+    constraint uk_trip_profiles_chat unique (chat_id),
+    constraint fk_trip_profiles_chat foreign key (chat_id) references chats (id)
+) engine = InnoDB;
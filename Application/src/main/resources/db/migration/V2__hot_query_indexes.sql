@@ -0,0 +1,10 @@
+-- A chat's history and its keyset pages: where chat_id = ? [and id < ?] order by id.
+-- Also serves the chat_id foreign key, so MySQL can drop the index it created for it.
+create index idx_chat_messages_chat_id_id on chat_messages (chat_id, id);
+
+-- A user's chats, newest first (dashboard sidebar).
+create index idx_chats_user_id_id on chats (user_id, id desc);
+
+-- Revoking all sessions of a user and purging expired sessions.
+create index idx_auth_sessions_user_id on auth_sessions (user_id);
+create index idx_auth_sessions_expires_at on auth_sessions (expires_at);
@@ -0,0 +1,5 @@
+-- Chats deleted in soft-delete mode are hidden at once and purged in the background.
+alter table chats add column deleted_at datetime(6);
+
+-- The purge job's lookup of chats still waiting to be removed.
+create index idx_chats_deleted_at on chats (deleted_at);
@@ -0,0 +1,164 @@
+package eu.popalexr.travel_recommendation.Repositories;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import eu.popalexr.travel_recommendation.Models.DocumentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every query method declared in {@code Repositories} against the migrated schema and
+ * EXPLAINs the SQL it sent (captured by the driver with its parameters bound). Fails when a
+ * plan reads a whole table or a whole index instead of looking rows up.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.data-source-properties.queryInterceptors="
+        + "eu.popalexr.travel_recommendation.Repositories.RepositoryQueryPlanTests$CapturingInterceptor"
+})
+@Transactional
+class RepositoryQueryPlanTests {
+
+    private static final String REPOSITORIES_PACKAGE = RepositoryQueryPlanTests.class.getPackageName();
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repositoryQueriesUseIndexes() throws Exception {
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        for (Object repository : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(repository)) {
+                if (!type.getPackageName().equals(REPOSITORIES_PACKAGE)) {
+                    continue;
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                        continue;
+                    }
+                    String name = type.getSimpleName() + "." + method.getName();
+                    CapturingInterceptor.STATEMENTS.clear();
+                    method.invoke(repository, sampleArguments(method));
+
+                    for (String sql : CapturingInterceptor.STATEMENTS) {
+                        checked++;
+                        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+                            Object access = row.get("type");
+                            if ("ALL".equals(access) || "index".equals(access)) {
+                                failures.add(name + " scans " + row.get("table") + " (" + access + "): " + sql);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "No repository statements were captured; is the interceptor installed?");
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == Long.class || type == long.class) {
+                arguments[i] = 1L;
+            } else if (type == Integer.class || type == int.class) {
+                arguments[i] = 1;
+            } else if (type == String.class) {
+                arguments[i] = "sample@example.com";
+            } else if (type == Limit.class) {
+                arguments[i] = Limit.of(50);
+            } else if (type == DocumentType.class) {
+                arguments[i] = DocumentType.OTHER;
+            } else if (type == LocalDateTime.class) {
+                arguments[i] = LocalDateTime.now();
+            } else if (Collection.class.isAssignableFrom(type)) {
+                arguments[i] = List.of("paris", "rome");
+            } else {
+                fail("No sample value for " + type.getSimpleName() + " in " + method);
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Records the statements the application sends, with client-side prepared statement
+     * parameters already substituted. Registered through the JDBC driver properties.
+     */
+    public static class CapturingInterceptor implements QueryInterceptor {
+
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public QueryInterceptor init(MysqlConnection connection, Properties properties, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            String statement = sql.get();
+            if (statement != null) {
+                String normalized = statement.stripLeading().toLowerCase(Locale.ROOT);
+                boolean dataStatement = normalized.startsWith("select")
+                    || normalized.startsWith("update")
+                    || normalized.startsWith("delete");
+                if (dataStatement && !normalized.contains("@@")) {
+                    STATEMENTS.add(statement);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(
+            Supplier<String> sql,
+            Query interceptedQuery,
+            T originalResultSet,
+            ServerSession serverSession
+        ) {
+            return null;
+        }
+    }
+}
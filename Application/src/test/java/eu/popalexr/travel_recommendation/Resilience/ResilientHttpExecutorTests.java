@@ -0,0 +1,270 @@
+package eu.popalexr.travel_recommendation.Resilience;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import eu.popalexr.travel_recommendation.Exceptions.UpstreamUnavailableException;
+import eu.popalexr.travel_recommendation.Http.HttpClientProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the executor against a local server that answers with a scripted sequence of replies
+ * (the last one repeats), counting the requests it receives.
+ */
+class ResilientHttpExecutorTests {
+
+    private static final Duration LONG_OPEN = Duration.ofMinutes(1);
+
+    private final ConcurrentLinkedDeque<Reply> script = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClientProfile profile;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::answer);
+        server.start();
+        profile = profile(Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stopServer() {
+        profile.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void retriesServerErrorsUntilSuccess() throws Exception {
+        script(new Reply(503), new Reply(502), new Reply(200));
+
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofSeconds(5));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void returnsTheLastRetryableResponseAfterMaxAttempts() throws Exception {
+        script(new Reply(500));
+
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofSeconds(5));
+
+        assertEquals(500, response.statusCode());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() throws Exception {
+        script(new Reply(400));
+
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofSeconds(5));
+
+        assertEquals(400, response.statusCode());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void waitsForRetryAfter() throws Exception {
+        script(new Reply(429, 0, Map.of("Retry-After", "0.3")), new Reply(200));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofSeconds(5));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 300);
+    }
+
+    @Test
+    void stopsRetryingWhenTheBackoffWouldPassTheDeadline() throws Exception {
+        script(new Reply(503, 0, Map.of("Retry-After", "1")));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofMillis(300));
+
+        assertEquals(503, response.statusCode());
+        assertEquals(1, hits.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+    }
+
+    @Test
+    void retriesAStalledAttemptWithinTheDeadline() throws Exception {
+        profile.close();
+        profile = profile(Duration.ofMillis(200));
+        script(new Reply(200, 1000, Map.of()), new Reply(200, 0, Map.of(), "fresh"));
+
+        HttpResponse<String> response = executor(settings(3)).send(request(), ofString(), Duration.ofSeconds(3));
+
+        assertEquals("fresh", response.body());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void retriesConnectionErrorsAndCountsThemAsFailures() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + closedPort + "/")).GET().build();
+        // Opens after three failures, so the fourth call shows that all three attempts were made.
+        ResilientHttpExecutor executor = new ResilientHttpExecutor(
+            profile,
+            new CircuitBreaker(10, 3, 1.0, LONG_OPEN, 1),
+            settings(3),
+            meterRegistry
+        );
+
+        assertThrows(IOException.class, () -> executor.send(request, ofString(), Duration.ofSeconds(5)));
+        assertThrows(UpstreamUnavailableException.class, () -> executor.send(request, ofString(), Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void failsFastWhileTheCircuitIsOpen() throws Exception {
+        script(new Reply(500));
+        ResilientHttpExecutor executor = new ResilientHttpExecutor(
+            profile,
+            new CircuitBreaker(2, 2, 0.5, LONG_OPEN, 1),
+            settings(1),
+            meterRegistry
+        );
+
+        assertEquals(500, executor.send(request(), ofString(), Duration.ofSeconds(5)).statusCode());
+        assertEquals(500, executor.send(request(), ofString(), Duration.ofSeconds(5)).statusCode());
+
+        assertThrows(UpstreamUnavailableException.class, () -> executor.send(request(), ofString(), Duration.ofSeconds(5)));
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void hedgedCallUsesTheFasterDuplicate() throws Exception {
+        script(new Reply(200, 1500, Map.of(), "slow"), new Reply(200, 0, Map.of(), "fast"));
+        ResilientHttpExecutor.Settings settings = new ResilientHttpExecutor.Settings(
+            1, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), true, Duration.ofMillis(100)
+        );
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = executor(settings).sendHedged(request(), ofString(), Duration.ofSeconds(5));
+
+        assertEquals("fast", response.body());
+        assertEquals(2, hits.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+
+    @Test
+    void sendDoesNotHedge() throws Exception {
+        script(new Reply(200, 300, Map.of(), "only"));
+        ResilientHttpExecutor.Settings settings = new ResilientHttpExecutor.Settings(
+            1, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), true, Duration.ofMillis(50)
+        );
+
+        assertEquals("only", executor(settings).send(request(), ofString(), Duration.ofSeconds(5)).body());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void readsRetryAfterInItsSupportedForms() throws Exception {
+        assertEquals(1500L, retryAfter(Map.of("retry-after-ms", "1500", "Retry-After", "9")));
+        assertEquals(2000L, retryAfter(Map.of("Retry-After", "2")));
+        assertEquals(500L, retryAfter(Map.of("Retry-After", "0.5")));
+        assertEquals(0L, retryAfter(Map.of("Retry-After", "Wed, 21 Oct 2015 07:28:00 GMT")));
+        assertEquals(-1L, retryAfter(Map.of("Retry-After", "soon")));
+        assertEquals(-1L, retryAfter(Map.of()));
+    }
+
+    private long retryAfter(Map<String, String> headers) throws Exception {
+        script.clear();
+        script(new Reply(200, 0, headers));
+        HttpResponse<String> response = profile.client().send(request(), ofString());
+        return ResilientHttpExecutor.retryAfterMillis(response).orElse(-1L);
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        Reply reply = script.size() > 1 ? script.pollFirst() : script.peekFirst();
+        try (exchange) {
+            if (reply.delayMillis() > 0) {
+                Thread.sleep(reply.delayMillis());
+            }
+            reply.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(reply.status(), body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // The client gave up on this attempt.
+        }
+    }
+
+    private void script(Reply... replies) {
+        script.addAll(List.of(replies));
+    }
+
+    private ResilientHttpExecutor executor(ResilientHttpExecutor.Settings settings) {
+        return new ResilientHttpExecutor(profile, new CircuitBreaker(100, 100, 1.0, LONG_OPEN, 1), settings, meterRegistry);
+    }
+
+    private static ResilientHttpExecutor.Settings settings(int maxAttempts) {
+        return new ResilientHttpExecutor.Settings(
+            maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(5), false, Duration.ofMillis(50)
+        );
+    }
+
+    private HttpClientProfile profile(Duration readTimeout) {
+        return HttpClientProfile.create(
+            "test",
+            new HttpClientProfile.Settings(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(1), readTimeout),
+            meterRegistry
+        );
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")).GET().build();
+    }
+
+    private static HttpResponse.BodyHandler<String> ofString() {
+        return HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+    }
+
+    private record Reply(int status, long delayMillis, Map<String, String> headers, String body) {
+
+        Reply(int status) {
+            this(status, 0, Map.of(), "");
+        }
+
+        Reply(int status, long delayMillis, Map<String, String> headers) {
+            this(status, delayMillis, headers, "");
+        }
+    }
+}
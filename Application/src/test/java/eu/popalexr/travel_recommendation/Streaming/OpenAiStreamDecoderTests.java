@@ -0,0 +1,215 @@
+package eu.popalexr.travel_recommendation.Streaming;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OpenAiStreamDecoderTests {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void decodesChatCompletionDeltasAndUsage() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        List<String> deltas = decode(decoder,
+            chunk("Hel") + "\n\n"
+                + chunk("lo") + "\n\n"
+                + "data: {\"choices\":[],\"usage\":{\"prompt_tokens\":9,\"completion_tokens\":2}}\n\n"
+                + "data: [DONE]\n\n"
+        );
+
+        assertEquals(List.of("Hel", "lo"), deltas);
+        assertEquals(2, decoder.outputTokens());
+    }
+
+    @Test
+    void decodesResponsesDeltasAndUsage() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.RESPONSES);
+
+        List<String> deltas = decode(decoder,
+            "event: response.created\n"
+                + "data: {\"type\":\"response.created\",\"response\":{\"status\":\"in_progress\"}}\n\n"
+                + "event: response.output_text.delta\n"
+                + "data: " + delta("Lis") + "\n\n"
+                + "data: " + delta("bon") + "\n\n"
+                + "data: {\"type\":\"response.completed\",\"response\":{\"usage\":{\"output_tokens\":7}}}\n\n"
+        );
+
+        assertEquals(List.of("Lis", "bon"), deltas);
+        assertEquals(7, decoder.outputTokens());
+    }
+
+    @Test
+    void reportsMissingUsage() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        decode(decoder, chunk("Hi") + "\n\ndata: [DONE]\n\n");
+
+        assertEquals(-1, decoder.outputTokens());
+    }
+
+    @Test
+    void splitsCrlfLinesAcrossReads() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+        String stream = chunk("one") + "\r\n\r\n" + chunk("two") + "\r\n\r\ndata: [DONE]\r\n\r\n";
+
+        // Cut right between every CR and its LF, and one byte at a time.
+        List<String> splitAtCr = new ArrayList<>();
+        decoder.decode(new ChunkedInputStream(stream.split("(?<=\r)")), splitAtCr::add);
+        List<String> bytewise = new ArrayList<>();
+        decoder.decode(new ChunkedInputStream(stream.split("")), bytewise::add);
+
+        assertEquals(List.of("one", "two"), splitAtCr);
+        assertEquals(List.of("one", "two"), bytewise);
+    }
+
+    @Test
+    void acceptsCrOnlyAndLfOnlyLineEndings() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        List<String> deltas = decode(decoder, chunk("a") + "\r\r" + chunk("b") + "\n\n");
+
+        assertEquals(List.of("a", "b"), deltas);
+    }
+
+    @Test
+    void joinsMultiLineDataFields() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.RESPONSES);
+
+        List<String> deltas = decode(decoder,
+            "data: {\"type\":\"response.output_text.delta\",\n"
+                + "data:\"delta\":\"joined\"}\n\n"
+        );
+
+        assertEquals(List.of("joined"), deltas);
+    }
+
+    @Test
+    void stopsAtDone() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        List<String> deltas = decode(decoder, chunk("before") + "\n\ndata: [DONE]\n\n" + chunk("after") + "\n\n");
+
+        assertEquals(List.of("before"), deltas);
+    }
+
+    @Test
+    void skipsCommentsOtherFieldsAndNonJsonData() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        List<String> deltas = decode(decoder,
+            ": keep-alive\n\n"
+                + "id: 4\nretry: 1000\nevent: chunk\n"
+                + "data: not json\n\n"
+                + chunk("   ") + "\n\n"
+                + chunk("kept") + "\n\n"
+        );
+
+        assertEquals(List.of("kept"), deltas);
+    }
+
+    @Test
+    void dispatchesTheLastEventWithoutATrailingBlankLine() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        List<String> deltas = decode(decoder, chunk("first") + "\n\n" + chunk("last"));
+
+        assertEquals(List.of("first", "last"), deltas);
+    }
+
+    @Test
+    void rethrowsResponsesErrorEvents() {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.RESPONSES);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> decode(decoder,
+            "data: " + delta("partial") + "\n\n"
+                + "data: {\"type\":\"response.error\",\"error\":{\"code\":\"server_error\",\"message\":\"Upstream failed\"}}\n\n"
+        ));
+
+        assertEquals("Upstream failed", error.getMessage());
+    }
+
+    @Test
+    void keepsLongLinesAcrossReadBuffers() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+        String text = "x".repeat(20_000);
+
+        List<String> deltas = decode(decoder, chunk(text) + "\n\n");
+
+        assertEquals(List.of(text), deltas);
+    }
+
+    @Test
+    void resetsStateBetweenStreams() throws IOException {
+        OpenAiStreamDecoder decoder = new OpenAiStreamDecoder(JSON, OpenAiStreamDecoder.Format.CHAT_COMPLETIONS);
+
+        // Ends mid-event: the partial line must not leak into the next stream.
+        decode(decoder, "data: [DONE]\n\ndata: {\"choices\":");
+        List<String> deltas = decode(decoder, chunk("fresh") + "\n\n");
+
+        assertEquals(List.of("fresh"), deltas);
+    }
+
+    private static List<String> decode(OpenAiStreamDecoder decoder, String stream) throws IOException {
+        List<String> deltas = new ArrayList<>();
+        decoder.decode(new ChunkedInputStream(stream), deltas::add);
+        return deltas;
+    }
+
+    private static String chunk(String content) {
+        return "data: {\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + content + "\"}}]}";
+    }
+
+    private static String delta(String text) {
+        return "{\"type\":\"response.output_text.delta\",\"delta\":\"" + text + "\"}";
+    }
+
+    /**
+     * Returns each chunk from a separate {@code read}, like a network stream would.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final List<byte[]> chunks = new ArrayList<>();
+        private int chunk;
+        private int position;
+
+        ChunkedInputStream(String... parts) {
+            for (String part : parts) {
+                if (!part.isEmpty()) {
+                    chunks.add(part.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (chunk == chunks.size()) {
+                return -1;
+            }
+            byte[] current = chunks.get(chunk);
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            if (position == current.length) {
+                chunk++;
+                position = 0;
+            }
+            return count;
+        }
+    }
+}